@@ -0,0 +1,23 @@
+package com.finance.config;
+
+import java.security.Principal;
+
+// Principal placed in the security context by JwtAuthenticationFilter; getName() stays the username
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String username;
+
+    public AuthenticatedUser(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+
+    @Override
+    public String getName() { return username; }
+
+    @Override
+    public String toString() { return username; }
+}
@@ -0,0 +1,48 @@
+package com.finance.config;
+
+import com.finance.model.Categorized;
+import com.finance.service.CategoryDictionary;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Fills in the category names of entities returned by Spring Data repositories from the in-process
+// CategoryDictionary, so a load reads only category_id and no lifecycle callback does I/O. A dictionary miss
+// reloads on the caller's thread after the repository call, on the connection its transaction holds.
+@Aspect
+@Component
+public class CategoryNameAspect {
+    private final CategoryDictionary categories;
+
+    public CategoryNameAspect(CategoryDictionary categories) {
+        this.categories = categories;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object fillNames(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Categorized) {
+            categories.fillName((Categorized) result);
+        } else if (result instanceof Optional) {
+            ((Optional<?>) result).ifPresent(row -> {
+                if (row instanceof Categorized) {
+                    categories.fillName((Categorized) row);
+                }
+            });
+        } else if (result instanceof Iterable) {
+            categories.fillNames((Iterable<?>) result);
+        } else if (result instanceof Stream) {
+            return ((Stream<?>) result).map(row -> {
+                if (row instanceof Categorized) {
+                    categories.fillName((Categorized) row);
+                }
+                return row;
+            });
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.finance.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    // Fan-out executor for composite endpoints. Follows spring.threads.virtual.enabled (which also moves Tomcat
+    // request handling to virtual threads on Java 21+); falls back to a bounded platform pool when virtual
+    // threads are disabled or the JVM does not have them.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService fanOutExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                          @Value("${finance.fan-out.platform-threads:32}") int platformThreads) {
+        if (virtualThreads) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("Fan-out executor uses virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads requested but not available on Java {}, using platform threads",
+                        System.getProperty("java.version"));
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreads, task -> {
+            Thread thread = new Thread(task, "fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // CPU-bound simulations (debt payoff sweeps, savings projections); kept off the common pool so they
+    // cannot starve parallel streams elsewhere in the app
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool simulationPool(@Value("${finance.simulation.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Drains per-subscriber SSE queues; writes are non-blocking, so a slow client never holds one of these threads
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService eventSender(@Value("${finance.events.sender-threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "event-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
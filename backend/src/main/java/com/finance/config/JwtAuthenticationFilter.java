@@ -1,12 +1,13 @@
 package com.finance.config;
 
+import com.finance.util.ExpiringCache;
 import com.finance.util.JwtUtil;
 import com.finance.model.User;
 import com.finance.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,32 +20,70 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    @Autowired
-    private JwtUtil jwtUtil;
-    @Autowired
-    private UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    // Validated tokens; an entry lives at most ttl-ms, after which the account is checked again,
+    // so deleted users lose access within that window
+    private final ExpiringCache<String, AuthenticatedUser> validatedTokens;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository,
+                                   @Value("${finance.auth.token-cache.max-size:10000}") int maxSize,
+                                   @Value("${finance.auth.token-cache.ttl-ms:60000}") long ttlMs) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.validatedTokens = new ExpiringCache<>(maxSize, ttlMs);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(token);
-            } catch (Exception ignored) {}
-        }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByUsername(username);
-            if (user != null) {
+        String token = bearerToken(request);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = authenticate(token);
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user.getUsername(), null, null);
+                        principal, null, null);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private static String bearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    private AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser cached = validatedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (Exception ignored) {
+            return null;
+        }
+        AuthenticatedUser principal = loadPrincipal(claims);
+        if (principal != null) {
+            validatedTokens.put(token, principal, claims.getExpiration().getTime() - System.currentTimeMillis());
+        }
+        return principal;
+    }
+
+    private AuthenticatedUser loadPrincipal(Claims claims) {
+        Long userId = JwtUtil.extractUserId(claims);
+        if (userId != null) {
+            // findById rather than existsById: the lookup is served from the second-level cache
+            return userRepository.findById(userId).isPresent() ? new AuthenticatedUser(userId, claims.getSubject()) : null;
+        }
+        // Tokens issued before the user id claim existed
+        User user = userRepository.findByUsername(claims.getSubject());
+        return user != null ? new AuthenticatedUser(user.getId(), user.getUsername()) : null;
+    }
 }
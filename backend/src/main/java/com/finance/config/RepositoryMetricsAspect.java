@@ -0,0 +1,84 @@
+package com.finance.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sampled slow-query log for Spring Data repository calls: a slow method is logged at most once per log interval,
+// together with how many slow calls were suppressed since its last entry. Latency of every call is recorded by
+// Actuator's own spring.data.repository.invocations timer.
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+    private final MeterRegistry meters;
+    private final long slowQueryNanos;
+    private final long logIntervalNanos;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<String, SlowLog> slowLogs = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meters,
+                                   @Value("${finance.metrics.slow-query-ms:250}") long slowQueryMs,
+                                   @Value("${finance.metrics.slow-query-log-interval-ms:10000}") long logIntervalMs) {
+        this.meters = meters;
+        this.slowQueryNanos = slowQueryMs * 1_000_000;
+        this.logIntervalNanos = logIntervalMs * 1_000_000;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= slowQueryNanos) {
+                slowQuery(repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName(), elapsed);
+            }
+        }
+    }
+
+    private void slowQuery(String query, long elapsed) {
+        Counter.builder("repository.slow.queries").description("Repository calls slower than the slow-query threshold")
+                .tag("query", query).register(meters).increment();
+        SlowLog slowLog = slowLogs.computeIfAbsent(query, key -> new SlowLog());
+        long now = System.nanoTime();
+        long last = slowLog.lastLogged.get();
+        if (last != 0 && now - last < logIntervalNanos || !slowLog.lastLogged.compareAndSet(last, now)) {
+            slowLog.suppressed.increment();
+            return;
+        }
+        log.warn("Slow query {} took {} ms ({} more slow calls since the last report)",
+                query, elapsed / 1_000_000, slowLog.suppressed.sumThenReset());
+    }
+
+    // The application interface behind the Spring Data proxy, e.g. ExpenseRepository
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (candidate.getName().startsWith("com.finance.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+
+    private static final class SlowLog {
+        final AtomicLong lastLogged = new AtomicLong();
+        final LongAdder suppressed = new LongAdder();
+    }
+}
@@ -0,0 +1,34 @@
+package com.finance.config;
+
+import com.finance.service.MonthlyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Regenerates monthly rollups from raw expenses and incomes when they are missing or when
+// finance.rollup.rebuild-on-startup=true is passed (e.g. --finance.rollup.rebuild-on-startup=true to repair drift)
+@Component
+public class RollupBootstrap implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(RollupBootstrap.class);
+
+    private final MonthlyRollupService rollupService;
+    private final boolean rebuildOnStartup;
+
+    public RollupBootstrap(MonthlyRollupService rollupService,
+                           @Value("${finance.rollup.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.rollupService = rollupService;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup || rollupService.isEmpty()) {
+            long start = System.currentTimeMillis();
+            int users = rollupService.rebuildAll();
+            log.info("Rebuilt monthly rollups for {} users in {} ms", users, System.currentTimeMillis() - start);
+        }
+    }
+}
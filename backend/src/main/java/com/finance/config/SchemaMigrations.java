@@ -0,0 +1,139 @@
+package com.finance.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Idempotent data fixes that Hibernate's ddl-auto=update cannot express; runs after the schema update
+// and before the web server accepts requests
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrations implements InitializingBean {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Tables that used identity columns keep their rows; move the new pooled sequences past them
+        alignSequence("expense_seq", "expense");
+        alignSequence("income_seq", "income");
+        migrateBudgets();
+        createBillReminderIndexes();
+        // After migrateBudgets, which may still give legacy budgets an owner
+        migrateCategories();
+        createSearchIndexes();
+    }
+
+    // Trigram indexes behind /api/search and the expense text filter. btree_gin lets user_id lead the GIN index,
+    // so a search only visits the caller's rows. Both extensions ship with Postgres but need create privilege.
+    private void createSearchIndexes() {
+        try {
+            jdbcTemplate.execute("create extension if not exists pg_trgm");
+            jdbcTemplate.execute("create extension if not exists btree_gin");
+        } catch (DataAccessException e) {
+            log.warn("Cannot enable pg_trgm and btree_gin, /api/search will not work: {}", e.getMessage());
+            return;
+        }
+        jdbcTemplate.execute("create index if not exists idx_expense_description_trgm " +
+                "on expense using gin (user_id, description gin_trgm_ops)");
+        jdbcTemplate.execute("create index if not exists idx_income_description_trgm " +
+                "on income using gin (user_id, description gin_trgm_ops)");
+        jdbcTemplate.execute("create index if not exists idx_debt_name_trgm " +
+                "on debt using gin (user_id, name gin_trgm_ops)");
+        jdbcTemplate.execute("create index if not exists idx_bill_reminder_bill_name_trgm " +
+                "on bill_reminder using gin (user_id, bill_name gin_trgm_ops)");
+    }
+
+    // Category names used to be repeated on every row. Moves them into the per-user category dictionary, points
+    // the rows at their entries and drops the text column once every named row has an id.
+    private void migrateCategories() {
+        migrateCategoryColumn("expense", "category", "category_id");
+        migrateCategoryColumn("budget", "category", "category_id");
+        migrateCategoryColumn("bill_reminder", "category", "category_id");
+        migrateCategoryColumn("income", "source", "source_id");
+    }
+
+    private void migrateCategoryColumn(String table, String column, String idColumn) {
+        if (columnExists(table, column)) {
+            jdbcTemplate.update("insert into category (user_id, name) select distinct user_id, " + column +
+                    " from " + table + " where user_id is not null and " + column + " is not null " +
+                    "on conflict (user_id, name) do nothing");
+            int linked = jdbcTemplate.update("update " + table + " t set " + idColumn + " = c.id from category c " +
+                    "where t." + idColumn + " is null and c.user_id = t.user_id and c.name = t." + column);
+            if (linked > 0) {
+                log.info("Linked {} {} rows to the category dictionary", linked, table);
+            }
+            Integer unlinked = jdbcTemplate.queryForObject("select count(*) from " + table +
+                    " where " + column + " is not null and " + idColumn + " is null", Integer.class);
+            if (unlinked != null && unlinked > 0) {
+                // Only ownerless rows are left; keep their names rather than lose them
+                log.warn("Keeping {}.{}: {} rows have no owner to file the name under", table, column, unlinked);
+            } else {
+                jdbcTemplate.execute("alter table " + table + " drop column " + column);
+                log.info("Dropped {}.{}, now stored as {}", table, column, idColumn);
+            }
+        }
+        String constraint = "fk_" + table + "_" + idColumn;
+        Integer exists = jdbcTemplate.queryForObject("select count(*) from pg_constraint where conname = ?",
+                Integer.class, constraint);
+        if (exists == null || exists == 0) {
+            jdbcTemplate.execute("alter table " + table + " add constraint " + constraint + " foreign key (" +
+                    idColumn + ") references category (id)");
+        }
+    }
+
+    // Partial indexes cannot be declared on the entity. Unpaid bills by due date serve the upcoming query;
+    // paid recurring bills by due date are the rollover job's queue.
+    private void createBillReminderIndexes() {
+        jdbcTemplate.execute("create index if not exists idx_bill_reminder_unpaid_due " +
+                "on bill_reminder (user_id, due_date) where paid = false");
+        jdbcTemplate.execute("create index if not exists idx_bill_reminder_rollover " +
+                "on bill_reminder (due_date) where paid = true and recurring = true");
+    }
+
+    // Budgets used to be global and keyed by a free-form month string. Converts "yyyy-MM" months to the
+    // yyyyMM period; ownerless budgets can only be attributed when there is a single user.
+    private void migrateBudgets() {
+        if (columnExists("budget", "month")) {
+            int converted = jdbcTemplate.update("update budget set period = cast(substring(month from 1 for 4) || " +
+                    "substring(month from 6 for 2) as integer) where period = 0 and month ~ '^[0-9]{4}-(0[1-9]|1[0-2])'");
+            if (converted > 0) {
+                log.info("Converted {} budget months to periods", converted);
+            }
+        }
+        int owned = jdbcTemplate.update("update budget set user_id = (select min(id) from users) " +
+                "where user_id is null and (select count(*) from users) = 1");
+        if (owned > 0) {
+            log.info("Assigned {} budgets to the only user", owned);
+        }
+        Integer orphaned = jdbcTemplate.queryForObject(
+                "select count(*) from budget where user_id is null or period = 0", Integer.class);
+        if (orphaned != null && orphaned > 0) {
+            log.warn("{} budgets have no owner or no valid month and are not visible to any user", orphaned);
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from information_schema.columns " +
+                "where table_name = ? and column_name = ?", Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private void alignSequence(String sequence, String table) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("select last_value from " + sequence, Long.class);
+        if (maxId != null && lastValue != null && maxId > lastValue) {
+            jdbcTemplate.queryForObject("select setval('" + sequence + "', ?)", Long.class, maxId);
+            log.info("Advanced sequence {} to {}", sequence, maxId);
+        }
+    }
+}
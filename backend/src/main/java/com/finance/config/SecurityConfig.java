@@ -1,7 +1,15 @@
 package com.finance.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -10,23 +18,54 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Value("${finance.metrics.scrape-token:}")
+    private String scrapeToken;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                // EventSource cannot send the JWT; the stream authenticates with a ticket instead (see EventController)
+                .requestMatchers(HttpMethod.GET, "/api/events").permitAll()
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).access((authentication, context) ->
+                        new AuthorizationDecision(scrapeAllowed(context.getRequest())))
+                // Completion dispatches of streams (SSE, exports) whose request was authorized when it started
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Error pages render the status a handler already chose (400, 404, 409); without this they become 403
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    // Metrics span all users, so a user's JWT is not enough: the scraper presents the configured token,
+    // or without one only local scrapes are answered
+    private boolean scrapeAllowed(HttpServletRequest request) {
+        if (scrapeToken.isEmpty()) {
+            try {
+                return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+            } catch (UnknownHostException e) {
+                return false;
+            }
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && MessageDigest.isEqual(header.getBytes(StandardCharsets.UTF_8),
+                ("Bearer " + scrapeToken).getBytes(StandardCharsets.UTF_8));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,79 @@
+package com.finance.config;
+
+import com.finance.util.SqlStatementLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Opens a SqlStatementLog for each request (ahead of the security filters, so token checks count too) and
+// reports requests that exceed the statement budget or repeat the same statement, the usual N+1 signature
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+    // Label for requests no handler mapped (404s, scans); their raw URI or method would make the series unbounded
+    static final String UNMATCHED = "UNMATCHED";
+
+    private final MeterRegistry meters;
+    private final int budget;
+    private final int repeatThreshold;
+
+    public SqlStatementBudgetFilter(MeterRegistry meters,
+                                    @Value("${finance.sql.statement-budget:20}") int budget,
+                                    @Value("${finance.sql.repeat-threshold:5}") int repeatThreshold) {
+        this.meters = meters;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementLog statements = SqlStatementLog.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                report(request, statements);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementLog statements) {
+        int count = statements.count();
+        if (count == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? request.getMethod() + " " + pattern : UNMATCHED;
+        Counter.builder("sql.statements").description("SQL statements issued by requests").tag("endpoint", endpoint)
+                .register(meters).increment(count);
+
+        if (count > budget) {
+            Counter.builder("sql.statement.budget.exceeded").description("Requests over the SQL statement budget")
+                    .tag("endpoint", endpoint).register(meters).increment();
+            log.warn("{} issued {} SQL statements (budget {})", endpoint, count, budget);
+        }
+        Map<String, Integer> repeated = statements.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("sql.repeated.statements").description("Requests repeating an identical statement (possible N+1)")
+                    .tag("endpoint", endpoint).register(meters).increment();
+            for (Map.Entry<String, Integer> entry : repeated.entrySet()) {
+                log.warn("Possible N+1 in {}: statement ran {} times: {}", endpoint, entry.getValue(), entry.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.finance.config;
+
+import com.finance.util.SqlStatementLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Tags responses with the number of SQL statements issued so far, the figure the load suite asserts on
+@ControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private final boolean enabled;
+
+    public SqlStatementCountAdvice(@Value("${finance.sql.count-header:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementLog statements = SqlStatementLog.current();
+        if (statements != null) {
+            response.getHeaders().set(HEADER, Integer.toString(statements.count()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,25 @@
+package com.finance.config;
+
+import com.finance.util.SqlStatementLog;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Sees every statement Hibernate prepares (HQL, criteria and native queries) and records it in the current
+// SqlStatementLog. JdbcTemplate calls bypass Hibernate and are not counted.
+@Component
+public class SqlStatementInspector implements StatementInspector, HibernatePropertiesCustomizer {
+    @Override
+    public String inspect(String sql) {
+        SqlStatementLog.record(sql);
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
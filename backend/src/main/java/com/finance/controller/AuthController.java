@@ -31,8 +31,8 @@ public class AuthController {
         User user = new User();
         user.setUsername(username);
         user.setPassword(passwordEncoder.encode(password));
-        userRepository.save(user);
-        String token = jwtUtil.generateToken(username);
+        user = userRepository.save(user);
+        String token = jwtUtil.generateToken(user.getId(), username);
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
         return response;
@@ -46,7 +46,7 @@ public class AuthController {
         if (user == null || !passwordEncoder.matches(password, user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
-        String token = jwtUtil.generateToken(username);
+        String token = jwtUtil.generateToken(user.getId(), username);
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
         return response;
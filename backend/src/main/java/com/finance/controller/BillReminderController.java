@@ -1,11 +1,21 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.BillReminder;
 import com.finance.repository.BillReminderRepository;
 import com.finance.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.finance.service.CategoryDictionary;
+import com.finance.service.ChangeEvent;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,30 +24,53 @@ import java.util.List;
 public class BillReminderController {
     private final BillReminderRepository repository;
     private final UserRepository userRepository;
+    private final ChangeVersionService versions;
+    private final CategoryDictionary categories;
 
-    public BillReminderController(BillReminderRepository repository, UserRepository userRepository) {
+    public BillReminderController(BillReminderRepository repository, UserRepository userRepository,
+                                  ChangeVersionService versions, CategoryDictionary categories) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.versions = versions;
+        this.categories = categories;
     }
 
     @GetMapping
-    public List<BillReminder> getAll(Authentication authentication) {
-        String username = authentication.getName();
-        return repository.findByUserUsername(username);
+    public List<BillReminder> getAll(@AuthenticationPrincipal AuthenticatedUser principal, ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.BILL_REMINDERS)) {
+            return null;
+        }
+        return repository.findByUserId(principal.getId());
+    }
+
+    // Unpaid bills due within the next days, overdue ones first; reads only those rows off the unpaid index
+    @GetMapping("/upcoming")
+    public List<BillReminder> getUpcoming(@RequestParam(defaultValue = "7") int days,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (days < 0 || days > 366) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be between 0 and 366");
+        }
+        return repository.findByUserIdAndPaidFalseAndDueDateLessThanEqualOrderByDueDate(
+                principal.getId(), LocalDate.now().plusDays(days));
     }
 
     @PostMapping
-    public BillReminder create(@RequestBody BillReminder reminder, Authentication authentication) {
-        String username = authentication.getName();
-        reminder.setUser(userRepository.findByUsername(username));
-        return repository.save(reminder);
+    @Transactional
+    public BillReminder create(@RequestBody BillReminder reminder, @AuthenticationPrincipal AuthenticatedUser principal) {
+        reminder.setUser(userRepository.getReferenceById(principal.getId()));
+        categories.resolve(reminder);
+        BillReminder saved = repository.save(reminder);
+        versions.changed(principal.getId(), DataCollection.BILL_REMINDERS,
+                ChangeEvent.created(saved.getId(), saved, saved.getAmount()));
+        return saved;
     }
 
     @PutMapping("/{id}")
-    public BillReminder update(@PathVariable Long id, @RequestBody BillReminder updatedReminder, Authentication authentication) {
-        String username = authentication.getName();
-        BillReminder reminder = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public BillReminder update(@PathVariable Long id, @RequestBody BillReminder updatedReminder, @AuthenticationPrincipal AuthenticatedUser principal) {
+        BillReminder reminder = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Bill reminder not found or not authorized"));
+        double previousAmount = reminder.getAmount();
         reminder.setBillName(updatedReminder.getBillName());
         reminder.setAmount(updatedReminder.getAmount());
         reminder.setDueDate(updatedReminder.getDueDate());
@@ -45,23 +78,30 @@ public class BillReminderController {
         reminder.setFrequency(updatedReminder.getFrequency());
         reminder.setPaid(updatedReminder.isPaid());
         reminder.setCategory(updatedReminder.getCategory());
-        return repository.save(reminder);
+        categories.resolve(reminder);
+        BillReminder saved = repository.save(reminder);
+        versions.changed(principal.getId(), DataCollection.BILL_REMINDERS,
+                ChangeEvent.updated(id, saved, saved.getAmount() - previousAmount));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        BillReminder reminder = repository.findByIdAndUserUsername(id, username)
-                .orElseThrow(() -> new RuntimeException("Bill reminder not found or not authorized"));
-        repository.delete(reminder);
+    @Transactional
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (repository.deleteByIdAndUserId(id, principal.getId()) == 0) {
+            throw new RuntimeException("Bill reminder not found or not authorized");
+        }
+        versions.changed(principal.getId(), DataCollection.BILL_REMINDERS, ChangeEvent.deleted(id, null));
     }
 
     @PatchMapping("/{id}/mark-paid")
-    public BillReminder markPaid(@PathVariable Long id, @RequestParam boolean paid, Authentication authentication) {
-        String username = authentication.getName();
-        BillReminder reminder = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public BillReminder markPaid(@PathVariable Long id, @RequestParam boolean paid, @AuthenticationPrincipal AuthenticatedUser principal) {
+        BillReminder reminder = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Bill reminder not found or not authorized"));
         reminder.setPaid(paid);
-        return repository.save(reminder);
+        BillReminder saved = repository.save(reminder);
+        versions.changed(principal.getId(), DataCollection.BILL_REMINDERS, ChangeEvent.updated(id, saved, null));
+        return saved;
     }
 }
@@ -1,47 +1,81 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.Budget;
 import com.finance.service.BudgetService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/budgets")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "http://localhost:3000")
 public class BudgetController {
-    @Autowired
-    private BudgetService budgetService;
+    private final BudgetService budgetService;
+    private final ChangeVersionService versions;
+
+    public BudgetController(BudgetService budgetService, ChangeVersionService versions) {
+        this.budgetService = budgetService;
+        this.versions = versions;
+    }
 
     @PostMapping
-    public Budget createBudget(@RequestBody Budget budget) {
-        return budgetService.saveBudget(budget);
+    public Budget createBudget(@RequestBody Budget budget, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (budget.getPeriod() == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Budget month is required");
+        }
+        return budgetService.saveBudget(principal.getId(), budget);
     }
 
     @GetMapping
-    public List<Budget> getAllBudgets() {
-        return budgetService.getAllBudgets();
+    public List<Budget> getAllBudgets(@AuthenticationPrincipal AuthenticatedUser principal, ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.BUDGETS)) {
+            return null;
+        }
+        return budgetService.getAllBudgets(principal.getId());
+    }
+
+    // Budget vs. actual spend per category; month is yyyy-MM and defaults to the current month
+    @GetMapping("/utilization")
+    public Map<String, Object> getUtilization(@RequestParam(required = false) String month,
+                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        int period = month != null ? period(month) : Budget.parsePeriod(YearMonth.now().toString());
+        return budgetService.getUtilization(principal.getId(), period);
     }
 
     @GetMapping("/{id}")
-    public Optional<Budget> getBudget(@PathVariable Long id) {
-        return budgetService.getBudget(id);
+    public Budget getBudget(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return budgetService.getBudget(principal.getId(), id);
     }
 
     @GetMapping("/month/{month}")
-    public List<Budget> getBudgetsForMonth(@PathVariable String month) {
-        return budgetService.getBudgetsForMonth(month);
+    public List<Budget> getBudgetsForMonth(@PathVariable String month, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return budgetService.getBudgetsForMonth(principal.getId(), period(month));
     }
 
     @GetMapping("/category/{category}")
-    public List<Budget> getBudgetsForCategory(@PathVariable String category) {
-        return budgetService.getBudgetsForCategory(category);
+    public List<Budget> getBudgetsForCategory(@PathVariable String category, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return budgetService.getBudgetsForCategory(principal.getId(), category);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteBudget(@PathVariable Long id) {
-        budgetService.deleteBudget(id);
+    public void deleteBudget(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        budgetService.deleteBudget(principal.getId(), id);
+    }
+
+    private static int period(String month) {
+        try {
+            return Budget.parsePeriod(month);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
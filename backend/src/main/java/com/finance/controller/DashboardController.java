@@ -0,0 +1,24 @@
+package com.finance.controller;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.service.DashboardService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public Map<String, Object> getDashboard(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return dashboardService.getDashboard(principal.getId());
+    }
+}
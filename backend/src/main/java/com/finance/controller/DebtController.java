@@ -1,12 +1,26 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.Debt;
 import com.finance.repository.DebtRepository;
 import com.finance.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.finance.service.ChangeEvent;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import com.finance.service.DebtPayoffEngine;
+import com.finance.service.DebtPayoffService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/debts")
@@ -14,30 +28,45 @@ import java.util.List;
 public class DebtController {
     private final DebtRepository repository;
     private final UserRepository userRepository;
+    private final ChangeVersionService versions;
+    private final DebtPayoffService payoffService;
 
-    public DebtController(DebtRepository repository, UserRepository userRepository) {
+    public DebtController(DebtRepository repository, UserRepository userRepository,
+                          ChangeVersionService versions, DebtPayoffService payoffService) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.versions = versions;
+        this.payoffService = payoffService;
     }
 
     @GetMapping
-    public List<Debt> getAll(Authentication authentication) {
-        String username = authentication.getName();
-        return repository.findByUserUsername(username);
+    public List<Debt> getAll(@AuthenticationPrincipal AuthenticatedUser principal, ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.DEBTS)) {
+            return null;
+        }
+        return repository.findByUserId(principal.getId());
     }
 
     @PostMapping
-    public Debt create(@RequestBody Debt debt, Authentication authentication) {
-        String username = authentication.getName();
-        debt.setUser(userRepository.findByUsername(username));
-        return repository.save(debt);
+    @Transactional
+    public Debt create(@RequestBody Debt debt, @AuthenticationPrincipal AuthenticatedUser principal) {
+        debt.setUser(userRepository.getReferenceById(principal.getId()));
+        debt.setVersion(null);
+        Debt saved = repository.save(debt);
+        versions.changed(principal.getId(), DataCollection.DEBTS,
+                ChangeEvent.created(saved.getId(), saved, saved.getRemainingAmount()));
+        return saved;
     }
 
     @PutMapping("/{id}")
-    public Debt update(@PathVariable Long id, @RequestBody Debt updatedDebt, Authentication authentication) {
-        String username = authentication.getName();
-        Debt debt = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public Debt update(@PathVariable Long id, @RequestBody Debt updatedDebt, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Debt debt = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Debt not found or not authorized"));
+        if (updatedDebt.getVersion() != null && !updatedDebt.getVersion().equals(debt.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Debt was changed by another request");
+        }
+        double previousRemaining = debt.getRemainingAmount();
         debt.setName(updatedDebt.getName());
         debt.setType(updatedDebt.getType());
         debt.setTotalAmount(updatedDebt.getTotalAmount());
@@ -46,23 +75,72 @@ public class DebtController {
         debt.setMinimumPayment(updatedDebt.getMinimumPayment());
         debt.setStartDate(updatedDebt.getStartDate());
         debt.setTargetPayoffDate(updatedDebt.getTargetPayoffDate());
-        return repository.save(debt);
+        Debt saved;
+        try {
+            // Flushed here so a write that lands between our read and the commit surfaces as a 409, not a 500
+            saved = repository.saveAndFlush(debt);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Debt was changed by another request");
+        }
+        versions.changed(principal.getId(), DataCollection.DEBTS,
+                ChangeEvent.updated(id, saved, saved.getRemainingAmount() - previousRemaining));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        Debt debt = repository.findByIdAndUserUsername(id, username)
-                .orElseThrow(() -> new RuntimeException("Debt not found or not authorized"));
-        repository.delete(debt);
+    @Transactional
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (repository.deleteByIdAndUserId(id, principal.getId()) == 0) {
+            throw new RuntimeException("Debt not found or not authorized");
+        }
+        versions.changed(principal.getId(), DataCollection.DEBTS, ChangeEvent.deleted(id, null));
     }
 
     @PatchMapping("/{id}/payment")
-    public Debt makePayment(@PathVariable Long id, @RequestParam double amount, Authentication authentication) {
-        String username = authentication.getName();
-        Debt debt = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public Debt makePayment(@PathVariable Long id, @RequestParam double amount, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Debt saved = repository.applyPayment(id, principal.getId(), amount)
                 .orElseThrow(() -> new RuntimeException("Debt not found or not authorized"));
-        debt.setRemainingAmount(Math.max(0, debt.getRemainingAmount() - amount));
-        return repository.save(debt);
+        // The balance before the payment is not read back, so a payment clamped at zero reports no delta
+        versions.changed(principal.getId(), DataCollection.DEBTS,
+                ChangeEvent.updated(id, saved, saved.getRemainingAmount() > 0 ? -amount : null));
+        return saved;
+    }
+
+    // Payoff plan for all of the user's debts; order is a comma-separated list of debt ids for strategy=custom
+    @GetMapping("/payoff")
+    public Map<String, Object> payoffPlan(@RequestParam(defaultValue = "avalanche") String strategy,
+                                          @RequestParam(defaultValue = "0") double extra,
+                                          @RequestParam(required = false) List<Long> order,
+                                          @RequestParam(defaultValue = "true") boolean schedule,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        return payoffService.plan(principal.getId(), strategy(strategy), extra, order, schedule);
+    }
+
+    // What-if comparison across strategies and a range of extra monthly payments
+    @GetMapping("/payoff/sweep")
+    public Map<String, Object> payoffSweep(@RequestParam(defaultValue = "avalanche,snowball") List<String> strategies,
+                                           @RequestParam(defaultValue = "0") double extraFrom,
+                                           @RequestParam(defaultValue = "500") double extraTo,
+                                           @RequestParam(defaultValue = "25") double extraStep,
+                                           @RequestParam(required = false) List<Long> order,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        List<DebtPayoffEngine.Strategy> parsed = new ArrayList<>();
+        for (String strategy : strategies) {
+            parsed.add(strategy(strategy));
+        }
+        try {
+            return payoffService.sweep(principal.getId(), parsed, extraFrom, extraTo, extraStep, order);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static DebtPayoffEngine.Strategy strategy(String name) {
+        try {
+            return DebtPayoffEngine.Strategy.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown payoff strategy: " + name);
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.finance.controller;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.service.ChangeEventBroadcaster;
+import com.finance.service.StreamTicketService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventController {
+    private final ChangeEventBroadcaster broadcaster;
+    private final StreamTicketService tickets;
+
+    public EventController(ChangeEventBroadcaster broadcaster, StreamTicketService tickets) {
+        this.broadcaster = broadcaster;
+        this.tickets = tickets;
+    }
+
+    // A single-use ticket for opening the stream, since EventSource cannot send the JWT
+    @PostMapping("/ticket")
+    public Map<String, String> ticket(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return Collections.singletonMap("ticket", tickets.issue(principal));
+    }
+
+    // Server-sent "change" events for the user's own writes from any session. Authenticated by the usual bearer
+    // token or, from EventSource, by ?ticket=. The broadcaster writes the stream itself.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(@AuthenticationPrincipal AuthenticatedUser principal,
+                       @RequestParam(required = false) String ticket,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        AuthenticatedUser user = principal != null ? principal : tickets.redeem(ticket);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or expired stream ticket");
+        }
+        broadcaster.subscribe(user.getId(), request, response);
+    }
+}
@@ -1,56 +1,151 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.Expense;
+import com.finance.repository.ExpenseCursor;
+import com.finance.repository.ExpenseFilter;
 import com.finance.repository.ExpenseRepository;
 import com.finance.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.finance.service.CategoryDictionary;
+import com.finance.service.ChangeEvent;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import com.finance.service.FinancialReportService;
+import com.finance.service.MonthlyRollupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/expenses")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = "X-Next-Cursor")
 public class ExpenseController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ExpenseRepository repository;
     private final UserRepository userRepository;
+    private final MonthlyRollupService rollupService;
+    private final ChangeVersionService versions;
+    private final CategoryDictionary categories;
+    private final FinancialReportService reportService;
 
-    public ExpenseController(ExpenseRepository repository, UserRepository userRepository) {
+    public ExpenseController(ExpenseRepository repository, UserRepository userRepository,
+                             MonthlyRollupService rollupService,
+                             ChangeVersionService versions, CategoryDictionary categories,
+                             FinancialReportService reportService) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.versions = versions;
+        this.categories = categories;
+        this.reportService = reportService;
     }
 
+    // Pages of at most limit (default 50, at most 500) expenses; X-Next-Cursor carries the next page position
     @GetMapping
-    public List<Expense> getAll(Authentication authentication) {
-        String username = authentication.getName();
-        return repository.findByUserUsername(username);
+    public ResponseEntity<List<Expense>> getAll(ExpenseFilter filter,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) String cursor,
+                                                @AuthenticationPrincipal AuthenticatedUser principal,
+                                                ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.EXPENSES)) {
+            return null;
+        }
+        ExpenseCursor after;
+        try {
+            after = cursor != null && !cursor.isEmpty() ? ExpenseCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Expense> page = repository.findPage(principal.getId(), filter, after, pageSize + 1);
+        if (page.size() <= pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        page = page.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, ExpenseCursor.after(page.get(pageSize - 1)).encode())
+                .body(page);
+    }
+
+    // Totals and month/category breakdown of every expense matching the filter, not just one page
+    @GetMapping("/summary")
+    public Map<String, Object> summary(ExpenseFilter filter, @AuthenticationPrincipal AuthenticatedUser principal,
+                                       ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.EXPENSES)) {
+            return null;
+        }
+        return reportService.getSpendingBreakdown(principal.getId(), filter);
     }
 
     @PostMapping
-    public Expense create(@RequestBody Expense expense, Authentication authentication) {
-        String username = authentication.getName();
-        expense.setUser(userRepository.findByUsername(username));
-        return repository.save(expense);
+    @Transactional
+    public Expense create(@RequestBody Expense expense, @AuthenticationPrincipal AuthenticatedUser principal) {
+        expense.setUser(userRepository.getReferenceById(principal.getId()));
+        expense.setVersion(null);
+        categories.resolve(expense);
+        Expense saved = repository.save(expense);
+        rollupService.recordExpense(saved, 1);
+        versions.changed(principal.getId(), DataCollection.EXPENSES,
+                ChangeEvent.created(saved.getId(), saved, saved.getAmount()));
+        return saved;
     }
 
     @PutMapping("/{id}")
-    public Expense update(@PathVariable Long id, @RequestBody Expense updatedExpense, Authentication authentication) {
-        String username = authentication.getName();
-        Expense expense = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public Expense update(@PathVariable Long id, @RequestBody Expense updatedExpense, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Expense expense = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Expense not found or not authorized"));
+        if (updatedExpense.getVersion() != null && !updatedExpense.getVersion().equals(expense.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Expense was changed by another request");
+        }
+        rollupService.recordExpense(expense, -1);
+        double previousAmount = expense.getAmount();
         expense.setCategory(updatedExpense.getCategory());
         expense.setAmount(updatedExpense.getAmount());
         expense.setDescription(updatedExpense.getDescription());
         expense.setRecurring(updatedExpense.isRecurring());
         expense.setDate(updatedExpense.getDate());
-        return repository.save(expense);
+        categories.resolve(expense);
+        Expense saved;
+        try {
+            // Flushed here so a write that lands between our read and the commit surfaces as a 409, and the
+            // rollup deltas taken from the stale read roll back with it
+            saved = repository.saveAndFlush(expense);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Expense was changed by another request");
+        }
+        rollupService.recordExpense(saved, 1);
+        versions.changed(principal.getId(), DataCollection.EXPENSES,
+                ChangeEvent.updated(saved.getId(), saved, saved.getAmount() - previousAmount));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        Expense expense = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Expense expense = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Expense not found or not authorized"));
-        repository.delete(expense);
+        rollupService.recordExpense(expense, -1);
+        try {
+            repository.delete(expense);
+            repository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Expense was changed by another request");
+        }
+        versions.changed(principal.getId(), DataCollection.EXPENSES, ChangeEvent.deleted(id, -expense.getAmount()));
     }
 }
\ No newline at end of file
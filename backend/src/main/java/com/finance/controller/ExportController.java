@@ -0,0 +1,66 @@
+package com.finance.controller;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String dataset,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long userId = principal.getId();
+        ExportService.Format exportFormat = parseFormat(format);
+        StreamingResponseBody body;
+        switch (dataset) {
+            case "expenses":
+                body = out -> exportService.exportExpenses(userId, exportFormat, out);
+                break;
+            case "income":
+                body = out -> exportService.exportIncomes(userId, exportFormat, out);
+                break;
+            case "debts":
+                body = out -> exportService.exportDebts(userId, exportFormat, out);
+                break;
+            case "bill-reminders":
+                body = out -> exportService.exportBillReminders(userId, exportFormat, out);
+                break;
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export dataset: " + dataset);
+        }
+        String extension = exportFormat == ExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + dataset + "." + extension + "\"")
+                .body(body);
+    }
+
+    private static ExportService.Format parseFormat(String format) {
+        try {
+            return ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+    }
+}
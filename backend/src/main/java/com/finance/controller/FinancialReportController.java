@@ -1,7 +1,9 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.service.FinancialReportService;
-import org.springframework.security.core.Authentication;
+import com.finance.service.MonthlyRollupService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -11,31 +13,36 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000")
 public class FinancialReportController {
     private final FinancialReportService reportService;
+    private final MonthlyRollupService rollupService;
 
-    public FinancialReportController(FinancialReportService reportService) {
+    public FinancialReportController(FinancialReportService reportService, MonthlyRollupService rollupService) {
         this.reportService = reportService;
+        this.rollupService = rollupService;
     }
 
     @GetMapping("/monthly")
     public Map<String, Object> getMonthlyReport(
             @RequestParam int year,
             @RequestParam int month,
-            Authentication authentication) {
-        String username = authentication.getName();
-        return reportService.generateMonthlyReport(username, year, month);
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return reportService.generateMonthlyReport(principal.getId(), year, month);
     }
 
     @GetMapping("/yearly")
     public Map<String, Object> getYearlyReport(
             @RequestParam int year,
-            Authentication authentication) {
-        String username = authentication.getName();
-        return reportService.generateYearlyReport(username, year);
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return reportService.generateYearlyReport(principal.getId(), year);
     }
 
     @GetMapping("/summary")
-    public Map<String, Object> getFinancialSummary(Authentication authentication) {
-        String username = authentication.getName();
-        return reportService.getFinancialSummary(username);
+    public Map<String, Object> getFinancialSummary(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return reportService.getFinancialSummary(principal.getId());
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Object> rebuildRollups(@AuthenticationPrincipal AuthenticatedUser principal) {
+        rollupService.rebuild(principal.getId());
+        return reportService.getFinancialSummary(principal.getId());
     }
 }
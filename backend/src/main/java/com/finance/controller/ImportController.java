@@ -0,0 +1,43 @@
+package com.finance.controller;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.service.StatementImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ImportController {
+    private final StatementImportService importService;
+
+    public ImportController(StatementImportService importService) {
+        this.importService = importService;
+    }
+
+    // The statement is the raw request body so it is parsed as it arrives instead of being buffered
+    @PostMapping
+    public Map<String, Object> importStatement(@RequestParam(defaultValue = "csv") String format,
+                                               InputStream body,
+                                               @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        StatementImportService.Format importFormat;
+        try {
+            importFormat = StatementImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown import format: " + format);
+        }
+        // Only a statement that cannot be read at all fails the request; bad lines are reported in the result
+        try {
+            return importService.importStatement(principal.getId(), importFormat, body);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.Income;
 import com.finance.repository.IncomeRepository;
 import com.finance.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.finance.service.CategoryDictionary;
+import com.finance.service.ChangeEvent;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import com.finance.service.MonthlyRollupService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -14,44 +25,84 @@ import java.util.List;
 public class IncomeController {
     private final IncomeRepository repository;
     private final UserRepository userRepository;
+    private final MonthlyRollupService rollupService;
+    private final ChangeVersionService versions;
+    private final CategoryDictionary categories;
 
-    public IncomeController(IncomeRepository repository, UserRepository userRepository) {
+    public IncomeController(IncomeRepository repository, UserRepository userRepository,
+                             MonthlyRollupService rollupService,
+                            ChangeVersionService versions, CategoryDictionary categories) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.versions = versions;
+        this.categories = categories;
     }
 
     @GetMapping
-    public List<Income> getAll(Authentication authentication) {
-        String username = authentication.getName();
-        return repository.findByUserUsername(username);
+    public List<Income> getAll(@AuthenticationPrincipal AuthenticatedUser principal, ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.INCOME)) {
+            return null;
+        }
+        return repository.findByUserId(principal.getId());
     }
 
     @PostMapping
-    public Income create(@RequestBody Income income, Authentication authentication) {
-        String username = authentication.getName();
-        income.setUser(userRepository.findByUsername(username));
-        return repository.save(income);
+    @Transactional
+    public Income create(@RequestBody Income income, @AuthenticationPrincipal AuthenticatedUser principal) {
+        income.setUser(userRepository.getReferenceById(principal.getId()));
+        income.setVersion(null);
+        categories.resolve(income);
+        Income saved = repository.save(income);
+        rollupService.recordIncome(saved, 1);
+        versions.changed(principal.getId(), DataCollection.INCOME,
+                ChangeEvent.created(saved.getId(), saved, saved.getAmount()));
+        return saved;
     }
 
     @PutMapping("/{id}")
-    public Income update(@PathVariable Long id, @RequestBody Income updatedIncome, Authentication authentication) {
-        String username = authentication.getName();
-        Income income = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public Income update(@PathVariable Long id, @RequestBody Income updatedIncome, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Income income = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Income not found or not authorized"));
+        if (updatedIncome.getVersion() != null && !updatedIncome.getVersion().equals(income.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Income was changed by another request");
+        }
+        rollupService.recordIncome(income, -1);
+        double previousAmount = income.getAmount();
         income.setSource(updatedIncome.getSource());
         income.setAmount(updatedIncome.getAmount());
         income.setDescription(updatedIncome.getDescription());
         income.setDate(updatedIncome.getDate());
         income.setRecurring(updatedIncome.isRecurring());
         income.setFrequency(updatedIncome.getFrequency());
-        return repository.save(income);
+        categories.resolve(income);
+        Income saved;
+        try {
+            // Flushed here so a write that lands between our read and the commit surfaces as a 409, and the
+            // rollup deltas taken from the stale read roll back with it
+            saved = repository.saveAndFlush(income);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Income was changed by another request");
+        }
+        rollupService.recordIncome(saved, 1);
+        versions.changed(principal.getId(), DataCollection.INCOME,
+                ChangeEvent.updated(saved.getId(), saved, saved.getAmount() - previousAmount));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        Income income = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Income income = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Income not found or not authorized"));
-        repository.delete(income);
+        rollupService.recordIncome(income, -1);
+        try {
+            repository.delete(income);
+            repository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Income was changed by another request");
+        }
+        versions.changed(principal.getId(), DataCollection.INCOME, ChangeEvent.deleted(id, -income.getAmount()));
     }
 }
@@ -1,12 +1,23 @@
 package com.finance.controller;
 
+import com.finance.config.AuthenticatedUser;
 import com.finance.model.SavingsGoal;
 import com.finance.repository.SavingsGoalRepository;
 import com.finance.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.finance.service.ChangeEvent;
+import com.finance.service.ChangeVersionService;
+import com.finance.service.DataCollection;
+import com.finance.service.SavingsProjectionService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/savings-goals")
@@ -14,56 +25,89 @@ import java.util.List;
 public class SavingsGoalController {
     private final SavingsGoalRepository repository;
     private final UserRepository userRepository;
+    private final ChangeVersionService versions;
+    private final SavingsProjectionService projectionService;
 
-    public SavingsGoalController(SavingsGoalRepository repository, UserRepository userRepository) {
+    public SavingsGoalController(SavingsGoalRepository repository, UserRepository userRepository,
+                                 ChangeVersionService versions, SavingsProjectionService projectionService) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.versions = versions;
+        this.projectionService = projectionService;
     }
 
     @GetMapping
-    public List<SavingsGoal> getAll(Authentication authentication) {
-        String username = authentication.getName();
-        return repository.findByUserUsername(username);
+    public List<SavingsGoal> getAll(@AuthenticationPrincipal AuthenticatedUser principal, ServletWebRequest request) {
+        if (versions.checkNotModified(request, principal.getId(), DataCollection.SAVINGS_GOALS)) {
+            return null;
+        }
+        return repository.findByUserId(principal.getId());
     }
 
     @PostMapping
-    public SavingsGoal create(@RequestBody SavingsGoal goal, Authentication authentication) {
-        String username = authentication.getName();
-        goal.setUser(userRepository.findByUsername(username));
-        return repository.save(goal);
+    @Transactional
+    public SavingsGoal create(@RequestBody SavingsGoal goal, @AuthenticationPrincipal AuthenticatedUser principal) {
+        goal.setUser(userRepository.getReferenceById(principal.getId()));
+        goal.setVersion(null);
+        SavingsGoal saved = repository.save(goal);
+        versions.changed(principal.getId(), DataCollection.SAVINGS_GOALS,
+                ChangeEvent.created(saved.getId(), saved, saved.getCurrentAmount()));
+        return saved;
     }
 
     @PutMapping("/{id}")
-    public SavingsGoal update(@PathVariable Long id, @RequestBody SavingsGoal updatedGoal, Authentication authentication) {
-        String username = authentication.getName();
-        SavingsGoal goal = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public SavingsGoal update(@PathVariable Long id, @RequestBody SavingsGoal updatedGoal, @AuthenticationPrincipal AuthenticatedUser principal) {
+        SavingsGoal goal = repository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Savings goal not found or not authorized"));
+        if (updatedGoal.getVersion() != null && !updatedGoal.getVersion().equals(goal.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Savings goal was changed by another request");
+        }
+        double previousAmount = goal.getCurrentAmount();
         goal.setName(updatedGoal.getName());
         goal.setTargetAmount(updatedGoal.getTargetAmount());
         goal.setCurrentAmount(updatedGoal.getCurrentAmount());
         goal.setTargetDate(updatedGoal.getTargetDate());
         goal.setDescription(updatedGoal.getDescription());
         goal.setCompleted(updatedGoal.isCompleted());
-        return repository.save(goal);
+        SavingsGoal saved;
+        try {
+            // Flushed here so a write that lands between our read and the commit surfaces as a 409, not a 500
+            saved = repository.saveAndFlush(goal);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Savings goal was changed by another request");
+        }
+        versions.changed(principal.getId(), DataCollection.SAVINGS_GOALS,
+                ChangeEvent.updated(id, saved, saved.getCurrentAmount() - previousAmount));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        SavingsGoal goal = repository.findByIdAndUserUsername(id, username)
-                .orElseThrow(() -> new RuntimeException("Savings goal not found or not authorized"));
-        repository.delete(goal);
+    @Transactional
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (repository.deleteByIdAndUserId(id, principal.getId()) == 0) {
+            throw new RuntimeException("Savings goal not found or not authorized");
+        }
+        versions.changed(principal.getId(), DataCollection.SAVINGS_GOALS, ChangeEvent.deleted(id, null));
     }
 
     @PatchMapping("/{id}/contribute")
-    public SavingsGoal contribute(@PathVariable Long id, @RequestParam double amount, Authentication authentication) {
-        String username = authentication.getName();
-        SavingsGoal goal = repository.findByIdAndUserUsername(id, username)
+    @Transactional
+    public SavingsGoal contribute(@PathVariable Long id, @RequestParam double amount, @AuthenticationPrincipal AuthenticatedUser principal) {
+        SavingsGoal saved = repository.contribute(id, principal.getId(), amount)
                 .orElseThrow(() -> new RuntimeException("Savings goal not found or not authorized"));
-        goal.setCurrentAmount(goal.getCurrentAmount() + amount);
-        if (goal.getCurrentAmount() >= goal.getTargetAmount()) {
-            goal.setCompleted(true);
+        versions.changed(principal.getId(), DataCollection.SAVINGS_GOALS, ChangeEvent.updated(id, saved, amount));
+        return saved;
+    }
+
+    // Monte Carlo "will I make it?" for every open goal, recomputed only after expenses, income or goals change
+    @GetMapping("/projection")
+    public Map<String, Object> projection(@RequestParam(required = false) Integer paths,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            return projectionService.project(principal.getId(), paths);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        return repository.save(goal);
     }
 }
@@ -0,0 +1,39 @@
+package com.finance.controller;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.service.SearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Expenses, income, debts and bills whose text resembles q, best match first
+    @GetMapping
+    public Map<String, Object> search(@RequestParam String q,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size,
+                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (q.trim().length() < 2) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be at least 2 characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return searchService.search(principal.getId(), q, page, size);
+    }
+}
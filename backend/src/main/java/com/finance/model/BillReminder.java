@@ -1,11 +1,15 @@
 package com.finance.model;
 
+import com.finance.service.CategoryListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import java.util.Objects;
 
 @Entity
-public class BillReminder {
+@Table(indexes = @Index(name = "idx_bill_reminder_user_id", columnList = "user_id, id"))
+@EntityListeners(CategoryListener.class)
+public class BillReminder implements Categorized {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -16,7 +20,11 @@ public class BillReminder {
     private boolean recurring;
     private String frequency; // MONTHLY, QUARTERLY, YEARLY
     private boolean paid;
-    private String category;
+    @Column(name = "category_id")
+    @JsonIgnore
+    private Integer categoryId;
+    @Transient
+    private String category; // filled from categoryId by CategoryDictionary when loaded, see CategoryNameAspect
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -46,8 +54,18 @@ public class BillReminder {
     public void setPaid(boolean paid) { this.paid = paid; }
     
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) {
+        if (!Objects.equals(this.category, category)) {
+            this.category = category;
+            this.categoryId = null;
+        }
+    }
     
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    // Categorized
+    @Override public String categoryName() { return category; }
+    @Override public Integer categoryId() { return categoryId; }
+    @Override public void categoryResolved(String name, Integer id) { this.category = name; this.categoryId = id; }
 }
@@ -1,34 +1,87 @@
 package com.finance.model;
 
+import com.finance.service.CategoryListener;
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Objects;
 
 @Entity
-public class Budget {
+@Table(indexes = @Index(name = "idx_budget_user_period", columnList = "user_id, period"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "budget")
+@EntityListeners(CategoryListener.class)
+public class Budget implements Categorized {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String category;
+    @Column(name = "category_id")
+    @JsonIgnore
+    private Integer categoryId;
+    @Transient
+    private String category; // filled from categoryId by CategoryDictionary when loaded, see CategoryNameAspect
     private Double amount;
-    private String month;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int period; // yyyyMM, same key as monthly_rollup.period
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @JsonIgnore
+    private User user;
 
     public Budget() {}
 
     public Budget(String category, Double amount, String month) {
         this.category = category;
         this.amount = amount;
-        this.month = month;
+        setMonth(month);
     }
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) {
+        if (!Objects.equals(this.category, category)) {
+            this.category = category;
+            this.categoryId = null;
+        }
+    }
 
     public Double getAmount() { return amount; }
     public void setAmount(Double amount) { this.amount = amount; }
 
-    public String getMonth() { return month; }
-    public void setMonth(String month) { this.month = month; }
+    public int getPeriod() { return period; }
+    public void setPeriod(int period) { this.period = period; }
+
+    // "yyyy-MM" view of period, the format the client sends and compares against
+    public String getMonth() { return period == 0 ? null : String.format("%04d-%02d", period / 100, period % 100); }
+    public void setMonth(String month) { this.period = parsePeriod(month); }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    // Categorized
+    @Override public String categoryName() { return category; }
+    @Override public Integer categoryId() { return categoryId; }
+    @Override public void categoryResolved(String name, Integer id) { this.category = name; this.categoryId = id; }
+
+    // Accepts "yyyy-MM" or "yyyyMM"
+    public static int parsePeriod(String month) {
+        String digits = month == null ? "" : month.trim().replace("-", "");
+        if (!digits.matches("\\d{6}")) {
+            throw new IllegalArgumentException("Month must be formatted as yyyy-MM: " + month);
+        }
+        int period = Integer.parseInt(digits);
+        if (period % 100 < 1 || period % 100 > 12) {
+            throw new IllegalArgumentException("Month must be formatted as yyyy-MM: " + month);
+        }
+        return period;
+    }
 }
@@ -0,0 +1,15 @@
+package com.finance.model;
+
+// An entity whose category (or income source) is stored as an id into its owner's category dictionary.
+// The methods are not bean properties so they stay out of JSON. Services resolve the id before saving
+// (CategoryDictionary.resolve); names of loaded rows are filled in from the id by CategoryNameAspect.
+public interface Categorized {
+    User getUser();
+
+    String categoryName();
+
+    Integer categoryId();
+
+    // Sets the name and id together without marking the id for re-resolution
+    void categoryResolved(String name, Integer id);
+}
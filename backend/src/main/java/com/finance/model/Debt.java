@@ -2,9 +2,11 @@ package com.finance.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_debt_user_id", columnList = "user_id, id"))
 public class Debt {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +21,11 @@ public class Debt {
     private LocalDate startDate;
     private LocalDate targetPayoffDate;
 
+    // Sent back on PUT; a stale value means someone else changed the row since the client loaded it
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -52,6 +59,9 @@ public class Debt {
     public LocalDate getTargetPayoffDate() { return targetPayoffDate; }
     public void setTargetPayoffDate(LocalDate targetPayoffDate) { this.targetPayoffDate = targetPayoffDate; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 }
@@ -1,21 +1,44 @@
 package com.finance.model;
 
+import com.finance.service.CategoryListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import java.util.Objects;
 
 @Entity
-public class Expense {
+@Table(indexes = {@Index(name = "idx_expense_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_expense_user_category", columnList = "user_id, category_id")},
+        uniqueConstraints = @UniqueConstraint(name = "uk_expense_recurring_copy", columnNames = {"recurring_source_id", "date"}))
+@EntityListeners(CategoryListener.class)
+public class Expense implements Categorized {
+    // Ids reserved per expense_seq value; SQL that draws from the sequence itself must honour it
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = ID_BLOCK_SIZE) // pooled ids keep JDBC insert batching possible
     private Long id;
-    private String category;
+    @Column(name = "category_id")
+    @JsonIgnore
+    private Integer categoryId;
+    @Transient
+    private String category; // filled from categoryId by CategoryDictionary when loaded, see CategoryNameAspect
     private double amount;
     private String description;
     private LocalDate date;
 
     private boolean recurring = false;
 
+    @Column(name = "recurring_source_id")
+    private Long recurringSourceId; // recurring expense this row was generated from
+
+    // Sent back on PUT; a stale value means someone else changed the row since the client loaded it
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -25,7 +48,12 @@ public class Expense {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) {
+        if (!Objects.equals(this.category, category)) {
+            this.category = category;
+            this.categoryId = null;
+        }
+    }
     public double getAmount() { return amount; }
     public void setAmount(double amount) { this.amount = amount; }
     public String getDescription() { return description; }
@@ -34,6 +62,15 @@ public class Expense {
     public void setDate(LocalDate date) { this.date = date; }
     public boolean isRecurring() { return recurring; }
     public void setRecurring(boolean recurring) { this.recurring = recurring; }
+    public Long getRecurringSourceId() { return recurringSourceId; }
+    public void setRecurringSourceId(Long recurringSourceId) { this.recurringSourceId = recurringSourceId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    // Categorized
+    @Override public String categoryName() { return category; }
+    @Override public Integer categoryId() { return categoryId; }
+    @Override public void categoryResolved(String name, Integer id) { this.category = name; this.categoryId = id; }
 }
\ No newline at end of file
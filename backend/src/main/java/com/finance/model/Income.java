@@ -1,22 +1,37 @@
 package com.finance.model;
 
+import com.finance.service.CategoryListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import java.util.Objects;
 
 @Entity
-public class Income {
+@Table(indexes = @Index(name = "idx_income_user_date", columnList = "user_id, date"))
+@EntityListeners(CategoryListener.class)
+public class Income implements Categorized {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "income_seq")
+    @SequenceGenerator(name = "income_seq", sequenceName = "income_seq", allocationSize = 50) // pooled ids keep JDBC insert batching possible
     private Long id;
     
-    private String source;
+    @Column(name = "source_id")
+    @JsonIgnore
+    private Integer sourceId;
+    @Transient
+    private String source; // filled from sourceId by CategoryDictionary when loaded, see CategoryNameAspect
     private double amount;
     private String description;
     private LocalDate date;
     private boolean recurring;
     private String frequency; // MONTHLY, WEEKLY, YEARLY
 
+    // Sent back on PUT; a stale value means someone else changed the row since the client loaded it
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -27,7 +42,12 @@ public class Income {
     public void setId(Long id) { this.id = id; }
     
     public String getSource() { return source; }
-    public void setSource(String source) { this.source = source; }
+    public void setSource(String source) {
+        if (!Objects.equals(this.source, source)) {
+            this.source = source;
+            this.sourceId = null;
+        }
+    }
     
     public double getAmount() { return amount; }
     public void setAmount(double amount) { this.amount = amount; }
@@ -43,7 +63,14 @@ public class Income {
     
     public String getFrequency() { return frequency; }
     public void setFrequency(String frequency) { this.frequency = frequency; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    // Categorized
+    @Override public String categoryName() { return source; }
+    @Override public Integer categoryId() { return sourceId; }
+    @Override public void categoryResolved(String name, Integer id) { this.source = name; this.sourceId = id; }
 }
@@ -0,0 +1,6 @@
+package com.finance.model;
+
+public enum LedgerKind {
+    EXPENSE,
+    INCOME
+}
@@ -0,0 +1,53 @@
+package com.finance.model;
+
+import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+@Entity
+@Table(name = "monthly_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_monthly_rollup", columnNames = {"user_id", "kind", "period", "category"}))
+public class MonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private LedgerKind kind;
+
+    @Column(nullable = false)
+    private int period; // yyyyMM, 0 for undated entries
+
+    @Column(nullable = false)
+    private String category; // expense category or income source, "" when missing
+
+    private double total;
+    private long entryCount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LedgerKind getKind() { return kind; }
+    public void setKind(LedgerKind kind) { this.kind = kind; }
+
+    public int getPeriod() { return period; }
+    public void setPeriod(int period) { this.period = period; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public double getTotal() { return total; }
+    public void setTotal(double total) { this.total = total; }
+
+    public long getEntryCount() { return entryCount; }
+    public void setEntryCount(long entryCount) { this.entryCount = entryCount; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+}
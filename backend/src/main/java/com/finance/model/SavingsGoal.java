@@ -2,9 +2,11 @@ package com.finance.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_savings_goal_user_id", columnList = "user_id, id"))
 public class SavingsGoal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +19,11 @@ public class SavingsGoal {
     private String description;
     private boolean completed;
 
+    // Sent back on PUT; a stale value means someone else changed the row since the client loaded it
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -44,6 +51,9 @@ public class SavingsGoal {
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 }
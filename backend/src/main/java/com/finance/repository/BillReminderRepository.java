@@ -1,11 +1,32 @@
 package com.finance.repository;
 
 import com.finance.model.BillReminder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BillReminderRepository extends JpaRepository<BillReminder, Long> {
-    List<BillReminder> findByUserUsername(String username);
-    Optional<BillReminder> findByIdAndUserUsername(Long id, String username);
+    List<BillReminder> findByUserId(Long userId);
+    Optional<BillReminder> findByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("delete from BillReminder b where b.id = :id and b.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    List<BillReminder> findByUserIdAndPaidFalseAndDueDateBetweenOrderByDueDate(Long userId, LocalDate from, LocalDate to);
+    List<BillReminder> findByUserIdAndPaidFalseAndDueDateLessThanEqualOrderByDueDate(Long userId, LocalDate to);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<BillReminder> streamByUserIdOrderById(Long userId);
 }
@@ -1,11 +1,19 @@
 package com.finance.repository;
 
 import com.finance.model.Budget;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.Optional;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
-    List<Budget> findByCategoryAndMonth(String category, String month);
-    List<Budget> findByMonth(String month);
-    List<Budget> findByCategory(String category);
+    List<Budget> findByUserId(Long userId);
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Budget> findByUserIdAndPeriod(Long userId, int period);
+
+    List<Budget> findByUserIdAndCategoryId(Long userId, Integer categoryId);
 }
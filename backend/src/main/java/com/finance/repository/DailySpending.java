@@ -0,0 +1,27 @@
+package com.finance.repository;
+
+import java.time.LocalDate;
+
+// One group of ExpenseRepository.sumByDateAndCategory; date and categoryId are null for undated and
+// uncategorized expenses
+public class DailySpending {
+    private final LocalDate date;
+    private final Integer categoryId;
+    private final double total;
+    private final long count;
+    private final double highest;
+
+    public DailySpending(LocalDate date, Integer categoryId, Double total, Long count, Double highest) {
+        this.date = date;
+        this.categoryId = categoryId;
+        this.total = total;
+        this.count = count;
+        this.highest = highest;
+    }
+
+    public LocalDate getDate() { return date; }
+    public Integer getCategoryId() { return categoryId; }
+    public double getTotal() { return total; }
+    public long getCount() { return count; }
+    public double getHighest() { return highest; }
+}
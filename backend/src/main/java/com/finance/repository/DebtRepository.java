@@ -1,11 +1,42 @@
 package com.finance.repository;
 
 import com.finance.model.Debt;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DebtRepository extends JpaRepository<Debt, Long> {
-    List<Debt> findByUserUsername(String username);
-    Optional<Debt> findByIdAndUserUsername(Long id, String username);
+    List<Debt> findByUserId(Long userId);
+    Optional<Debt> findByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("delete from Debt d where d.id = :id and d.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Atomic payment clamped at zero; see SavingsGoalRepository.contribute
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "debt"))
+    @Query(value = "update debt set remaining_amount = greatest(0, remaining_amount - :amount), " +
+            "version = coalesce(version, 0) + 1 " +
+            "where id = :id and user_id = :userId returning *", nativeQuery = true)
+    Optional<Debt> applyPayment(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") double amount);
+
+    @Query("select count(d) as count, coalesce(sum(d.totalAmount), 0) as totalAmount, " +
+            "coalesce(sum(d.remainingAmount), 0) as remainingAmount, coalesce(sum(d.minimumPayment), 0) as minimumPayment " +
+            "from Debt d where d.user.id = :userId")
+    DebtTotals sumByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Debt> streamByUserIdOrderById(Long userId);
 }
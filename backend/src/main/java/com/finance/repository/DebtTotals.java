@@ -0,0 +1,8 @@
+package com.finance.repository;
+
+public interface DebtTotals {
+    long getCount();
+    double getTotalAmount();
+    double getRemainingAmount();
+    double getMinimumPayment();
+}
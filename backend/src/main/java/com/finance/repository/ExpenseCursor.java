@@ -0,0 +1,44 @@
+package com.finance.repository;
+
+import com.finance.model.Expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Position of the last expense of a page in (date desc nulls first, id desc) order
+public final class ExpenseCursor {
+    private static final String NO_DATE = "-";
+
+    private final LocalDate date;
+    private final long id;
+
+    public ExpenseCursor(LocalDate date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDate getDate() { return date; }
+    public long getId() { return id; }
+
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    public String encode() {
+        String raw = (date == null ? NO_DATE : date.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String date = raw.substring(0, separator);
+            return new ExpenseCursor(NO_DATE.equals(date) ? null : LocalDate.parse(date),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
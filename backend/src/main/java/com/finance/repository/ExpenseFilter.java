@@ -0,0 +1,39 @@
+package com.finance.repository;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Optional criteria for listing expenses; null fields are ignored
+public class ExpenseFilter {
+    private String category;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private Double minAmount;
+    private Double maxAmount;
+    private Boolean recurring;
+    private String q; // case-insensitive match on description or category
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public Double getMinAmount() { return minAmount; }
+    public void setMinAmount(Double minAmount) { this.minAmount = minAmount; }
+
+    public Double getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(Double maxAmount) { this.maxAmount = maxAmount; }
+
+    public Boolean getRecurring() { return recurring; }
+    public void setRecurring(Boolean recurring) { this.recurring = recurring; }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+}
@@ -1,13 +1,27 @@
 package com.finance.repository;
 
 import com.finance.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-	List<Expense> findByUserUsername(String username);
-	java.util.Optional<Expense> findByIdAndUserUsername(Long id, String username);
-	List<Expense> findByRecurringTrue();
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
+	List<Expense> findByUserId(Long userId);
+	java.util.Optional<Expense> findByIdAndUserId(Long id, Long userId);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	Stream<Expense> streamByUserIdOrderById(Long userId);
+
+	@Query("select max(e.amount) from Expense e where e.user.id = :userId")
+	Double findMaxAmountByUserId(@Param("userId") Long userId);
 }
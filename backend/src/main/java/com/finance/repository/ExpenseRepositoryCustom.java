@@ -0,0 +1,12 @@
+package com.finance.repository;
+
+import com.finance.model.Expense;
+import java.util.List;
+
+public interface ExpenseRepositoryCustom {
+    // Returns at most limit expenses matching filter that sort after cursor (null for the first page)
+    List<Expense> findPage(Long userId, ExpenseFilter filter, ExpenseCursor cursor, int limit);
+
+    // Sum, count and largest amount of the expenses matching filter, per date and category id
+    List<DailySpending> sumByDateAndCategory(Long userId, ExpenseFilter filter);
+}
@@ -0,0 +1,127 @@
+package com.finance.repository;
+
+import com.finance.model.Category;
+import com.finance.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Expense> findPage(Long userId, ExpenseFilter filter, ExpenseCursor cursor, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Path<LocalDate> date = expense.get("date");
+        Path<Long> id = expense.get("id");
+
+        List<Predicate> predicates = predicates(query, cb, expense, userId, filter);
+        if (cursor != null) {
+            // Seek past the cursor: undated rows come first, then dates descending, ties broken by id
+            if (cursor.getDate() == null) {
+                predicates.add(cb.or(
+                        cb.and(cb.isNull(date), cb.lt(id, cursor.getId())),
+                        cb.isNotNull(date)));
+            } else {
+                predicates.add(cb.or(
+                        cb.lessThan(date, cursor.getDate()),
+                        cb.and(cb.equal(date, cursor.getDate()), cb.lt(id, cursor.getId()))));
+            }
+        }
+
+        query.select(expense)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(date, true), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<DailySpending> sumByDateAndCategory(Long userId, ExpenseFilter filter) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<DailySpending> query = cb.createQuery(DailySpending.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Path<LocalDate> date = expense.get("date");
+        Path<Integer> categoryId = expense.get("categoryId");
+        Path<Double> amount = expense.get("amount");
+
+        query.select(cb.construct(DailySpending.class, date, categoryId, cb.sum(amount), cb.count(expense), cb.max(amount)))
+                .where(predicates(query, cb, expense, userId, filter).toArray(new Predicate[0]))
+                .groupBy(date, categoryId);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // The filter's criteria, shared by the page and summary queries
+    private static List<Predicate> predicates(CriteriaQuery<?> query, HibernateCriteriaBuilder cb, Root<Expense> expense,
+                                              Long userId, ExpenseFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<LocalDate> date = expense.get("date");
+        predicates.add(cb.equal(expense.get("user").get("id"), userId));
+        if (filter.getCategory() != null && !filter.getCategory().isEmpty()) {
+            String name = filter.getCategory();
+            predicates.add(expense.get("categoryId").in(categoryIds(query, cb, userId, n -> cb.equal(n, name))));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(date, filter.getTo()));
+        }
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.ge(expense.get("amount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.le(expense.get("amount"), filter.getMaxAmount()));
+        }
+        if (filter.getRecurring() != null) {
+            predicates.add(cb.equal(expense.get("recurring"), filter.getRecurring()));
+        }
+        if (filter.getQ() != null && !filter.getQ().isBlank()) {
+            // ilike rather than lower() like, so the description trigram index applies
+            String pattern = "%" + escapeLike(filter.getQ().trim()) + "%";
+            predicates.add(cb.or(
+                    cb.ilike(expense.get("description"), pattern, LIKE_ESCAPE),
+                    expense.get("categoryId").in(categoryIds(query, cb, userId, n -> cb.ilike(n, pattern, LIKE_ESCAPE)))));
+        }
+        return predicates;
+    }
+
+    // The search text matches literally: % and _ typed by the user are not wildcards
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    // Ids of the user's category dictionary entries whose name matches
+    private static Subquery<Integer> categoryIds(CriteriaQuery<?> query, HibernateCriteriaBuilder cb, Long userId,
+                                                 Function<Path<String>, Predicate> matches) {
+        Subquery<Integer> ids = query.subquery(Integer.class);
+        Root<Category> category = ids.from(Category.class);
+        ids.select(category.get("id"))
+                .where(cb.equal(category.get("user").get("id"), userId), matches.apply(category.get("name")));
+        return ids;
+    }
+}
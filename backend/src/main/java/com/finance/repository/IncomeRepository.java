@@ -1,11 +1,21 @@
 package com.finance.repository;
 
 import com.finance.model.Income;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IncomeRepository extends JpaRepository<Income, Long> {
-    List<Income> findByUserUsername(String username);
-    Optional<Income> findByIdAndUserUsername(Long id, String username);
+    List<Income> findByUserId(Long userId);
+    Optional<Income> findByIdAndUserId(Long id, Long userId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Income> streamByUserIdOrderById(Long userId);
 }
@@ -0,0 +1,9 @@
+package com.finance.repository;
+
+import com.finance.model.LedgerKind;
+
+public interface KindTotal {
+    LedgerKind getKind();
+    double getTotal();
+    long getEntryCount();
+}
@@ -0,0 +1,61 @@
+package com.finance.repository;
+
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+    List<MonthlyRollup> findByUserIdAndKindAndPeriod(Long userId, LedgerKind kind, int period);
+    List<MonthlyRollup> findByUserIdAndPeriodBetween(Long userId, int fromPeriod, int toPeriod);
+    List<MonthlyRollup> findByUserIdAndKindOrderByPeriod(Long userId, LedgerKind kind);
+
+    @Query("select r.kind as kind, sum(r.total) as total, sum(r.entryCount) as entryCount " +
+            "from MonthlyRollup r where r.user.id = :userId group by r.kind")
+    List<KindTotal> sumByKind(@Param("userId") Long userId);
+
+    // Native writes name the table they touch; otherwise Hibernate evicts every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_rollup"))
+    @Query(value = "insert into monthly_rollup (user_id, kind, period, category, total, entry_count) " +
+            "values (:userId, :kind, :period, :category, :amount, :count) " +
+            "on conflict (user_id, kind, period, category) do update set " +
+            "total = monthly_rollup.total + excluded.total, " +
+            "entry_count = monthly_rollup.entry_count + excluded.entry_count",
+            nativeQuery = true)
+    void addToRollup(@Param("userId") Long userId,
+                     @Param("kind") String kind,
+                     @Param("period") int period,
+                     @Param("category") String category,
+                     @Param("amount") double amount,
+                     @Param("count") long count);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_rollup"))
+    @Query(value = "delete from monthly_rollup where user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_rollup"))
+    @Query(value = "insert into monthly_rollup (user_id, kind, period, category, total, entry_count) " +
+            "select e.user_id, 'EXPENSE', coalesce(cast(extract(year from e.date) * 100 + extract(month from e.date) as integer), 0), " +
+            "coalesce(c.name, ''), sum(e.amount), count(*) from expense e left join category c on c.id = e.category_id " +
+            "where e.user_id = :userId group by 1, 3, 4",
+            nativeQuery = true)
+    void rebuildExpenses(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_rollup"))
+    @Query(value = "insert into monthly_rollup (user_id, kind, period, category, total, entry_count) " +
+            "select i.user_id, 'INCOME', coalesce(cast(extract(year from i.date) * 100 + extract(month from i.date) as integer), 0), " +
+            "coalesce(c.name, ''), sum(i.amount), count(*) from income i left join category c on c.id = i.source_id " +
+            "where i.user_id = :userId group by 1, 3, 4",
+            nativeQuery = true)
+    void rebuildIncomes(@Param("userId") Long userId);
+}
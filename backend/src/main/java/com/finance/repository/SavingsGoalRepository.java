@@ -1,11 +1,32 @@
 package com.finance.repository;
 
 import com.finance.model.SavingsGoal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 public interface SavingsGoalRepository extends JpaRepository<SavingsGoal, Long> {
-    List<SavingsGoal> findByUserUsername(String username);
-    Optional<SavingsGoal> findByIdAndUserUsername(Long id, String username);
+    List<SavingsGoal> findByUserId(Long userId);
+    Optional<SavingsGoal> findByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("delete from SavingsGoal g where g.id = :id and g.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // One atomic statement instead of read-modify-write, so concurrent contributions cannot overwrite each other.
+    // Reads the updated row back through RETURNING; empty when the goal is missing or not the user's.
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "savings_goal"))
+    @Query(value = "update savings_goal set current_amount = current_amount + :amount, " +
+            "completed = completed or current_amount + :amount >= target_amount, " +
+            "version = coalesce(version, 0) + 1 " +
+            "where id = :id and user_id = :userId returning *", nativeQuery = true)
+    Optional<SavingsGoal> contribute(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") double amount);
 }
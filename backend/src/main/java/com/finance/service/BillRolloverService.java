@@ -0,0 +1,104 @@
+package com.finance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class BillRolloverService {
+    private static final Logger log = LoggerFactory.getLogger(BillRolloverService.class);
+
+    // Moves one batch of paid recurring bills whose due date has come to their next due date and marks them
+    // unpaid. Walks idx_bill_reminder_rollover in due date order; rows locked by a concurrent run (another
+    // instance) are skipped rather than waited on.
+    private static final String ROLL_BATCH_SQL =
+            "with batch as (" +
+            "  select id from bill_reminder" +
+            "  where paid = true and recurring = true and due_date <= :today" +
+            "  order by due_date limit :batchSize for update skip locked" +
+            ") update bill_reminder b set paid = false, due_date = cast(b.due_date + case upper(b.frequency)" +
+            "  when 'QUARTERLY' then interval '3 months' when 'YEARLY' then interval '1 year'" +
+            "  else interval '1 month' end as date)" +
+            " from batch where b.id = batch.id returning b.user_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ChangeVersionService versions;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Timer runTimer;
+    private final Counter rolledCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BillRolloverService(NamedParameterJdbcTemplate jdbcTemplate, ChangeVersionService versions,
+                               PlatformTransactionManager transactionManager, MeterRegistry meters,
+                               @Value("${finance.bills.rollover-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = versions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.runTimer = Timer.builder("bill.rollover.job").description("Bill rollover job run duration")
+                .register(meters);
+        this.rolledCounter = Counter.builder("bill.rollover.rows").description("Recurring bills moved to their next due date")
+                .register(meters);
+    }
+
+    // Hourly by default; a bill paid after its due date rolls over within the hour
+    @Scheduled(cron = "${finance.bills.rollover-cron:0 5 * * * *}")
+    public void rollOverPaidBills() {
+        rollOverPaidBills(LocalDate.now());
+    }
+
+    public int rollOverPaidBills(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Bill rollover already running, skipping");
+            return 0;
+        }
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("today", today)
+                    .addValue("batchSize", batchSize);
+            while (true) {
+                // One transaction per batch keeps row locks short; rolled bills are unpaid, so later batches
+                // never pick them up again
+                int rolled = transactionTemplate.execute(status -> {
+                    List<Long> userIds = jdbcTemplate.queryForList(ROLL_BATCH_SQL, params, Long.class);
+                    for (Long userId : new LinkedHashSet<>(userIds)) {
+                        versions.changed(userId, DataCollection.BILL_REMINDERS);
+                    }
+                    return userIds.size();
+                });
+                total += rolled;
+                rolledCounter.increment(rolled);
+                if (rolled < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Bill rollover failed after {} bills", total, e);
+        } finally {
+            running.set(false);
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (total > 0) {
+            log.info("Rolled {} recurring bills over to their next due date", total);
+        }
+        return total;
+    }
+}
@@ -1,39 +1,132 @@
 package com.finance.service;
 
 import com.finance.model.Budget;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
 import com.finance.repository.BudgetRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.finance.repository.MonthlyRollupRepository;
+import com.finance.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.TreeSet;
 
 @Service
 public class BudgetService {
-    @Autowired
-    private BudgetRepository budgetRepository;
+    private static final String UNCATEGORIZED = "Uncategorized";
 
-    public Budget saveBudget(Budget budget) {
-        return budgetRepository.save(budget);
+    private final BudgetRepository budgetRepository;
+    private final MonthlyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final ChangeVersionService versions;
+    private final CategoryDictionary categories;
+
+    public BudgetService(BudgetRepository budgetRepository, MonthlyRollupRepository rollupRepository,
+                         UserRepository userRepository, ChangeVersionService versions,
+                         CategoryDictionary categories) {
+        this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.versions = versions;
+        this.categories = categories;
+    }
+
+    @Transactional
+    public Budget saveBudget(Long userId, Budget budget) {
+        budget.setId(null);
+        budget.setUser(userRepository.getReferenceById(userId));
+        categories.resolve(budget);
+        Budget saved = budgetRepository.save(budget);
+        versions.changed(userId, DataCollection.BUDGETS, ChangeEvent.created(saved.getId(), saved, saved.getAmount()));
+        return saved;
+    }
+
+    public List<Budget> getAllBudgets(Long userId) {
+        return budgetRepository.findByUserId(userId);
     }
 
-    public List<Budget> getBudgetsForMonth(String month) {
-        return budgetRepository.findByMonth(month);
+    public List<Budget> getBudgetsForMonth(Long userId, int period) {
+        return budgetRepository.findByUserIdAndPeriod(userId, period);
     }
 
-    public List<Budget> getBudgetsForCategory(String category) {
-        return budgetRepository.findByCategory(category);
+    public List<Budget> getBudgetsForCategory(Long userId, String category) {
+        Integer categoryId = categories.find(userId, category);
+        return categoryId != null ? budgetRepository.findByUserIdAndCategoryId(userId, categoryId) : new ArrayList<>();
     }
 
-    public Optional<Budget> getBudget(Long id) {
-        return budgetRepository.findById(id);
+    public Budget getBudget(Long userId, Long id) {
+        return budgetRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Budget not found or not authorized"));
     }
 
-    public void deleteBudget(Long id) {
-        budgetRepository.deleteById(id);
+    // Deleted through the entity rather than a bulk delete, which would evict the whole Budget cache region
+    @Transactional
+    public void deleteBudget(Long userId, Long id) {
+        Budget budget = getBudget(userId, id);
+        budgetRepository.delete(budget);
+        Double amountDelta = budget.getAmount() != null ? -budget.getAmount() : null;
+        versions.changed(userId, DataCollection.BUDGETS, ChangeEvent.deleted(id, amountDelta));
+    }
+
+    // Budget vs. actual for one month. Spend comes from the expense rollups, which expense writes keep current,
+    // so the cost depends on the number of categories rather than the number of expenses.
+    public Map<String, Object> getUtilization(Long userId, int period) {
+        Map<String, Double> budgeted = new HashMap<>();
+        for (Budget budget : budgetRepository.findByUserIdAndPeriod(userId, period)) {
+            if (budget.getAmount() != null) {
+                budgeted.merge(categoryName(budget.getCategory()), budget.getAmount(), Double::sum);
+            }
+        }
+        Map<String, Double> spent = new HashMap<>();
+        for (MonthlyRollup row : rollupRepository.findByUserIdAndKindAndPeriod(userId, LedgerKind.EXPENSE, period)) {
+            if (row.getEntryCount() != 0) {
+                spent.merge(categoryName(row.getCategory()), row.getTotal(), Double::sum);
+            }
+        }
+
+        TreeSet<String> categories = new TreeSet<>(budgeted.keySet());
+        categories.addAll(spent.keySet());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        double totalBudget = 0;
+        double totalSpent = 0;
+        int overBudget = 0;
+        for (String category : categories) {
+            Double budget = budgeted.get(category);
+            double categorySpent = spent.getOrDefault(category, 0.0);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("category", category);
+            row.put("budget", budget);
+            row.put("spent", categorySpent);
+            row.put("remaining", budget != null ? budget - categorySpent : null);
+            row.put("utilization", budget != null && budget > 0 ? categorySpent / budget * 100 : null);
+            row.put("overBudget", budget != null && categorySpent > budget);
+            rows.add(row);
+            if (budget != null) {
+                totalBudget += budget;
+                if (categorySpent > budget) {
+                    overBudget++;
+                }
+            }
+            totalSpent += categorySpent;
+        }
+
+        Map<String, Object> utilization = new LinkedHashMap<>();
+        utilization.put("month", String.format("%04d-%02d", period / 100, period % 100));
+        utilization.put("period", period);
+        utilization.put("totalBudget", totalBudget);
+        utilization.put("totalSpent", totalSpent);
+        utilization.put("totalRemaining", totalBudget - totalSpent);
+        utilization.put("overBudgetCount", overBudget);
+        utilization.put("categories", rows);
+        return utilization;
     }
 
-    public List<Budget> getAllBudgets() {
-        return budgetRepository.findAll();
+    private static String categoryName(String category) {
+        return category == null || category.isEmpty() ? UNCATEGORIZED : category;
     }
 }
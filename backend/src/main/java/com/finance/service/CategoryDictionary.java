@@ -0,0 +1,170 @@
+package com.finance.service;
+
+import com.finance.model.Categorized;
+import com.finance.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-user name <-> id mapping for the category table, cached in process. Entries never change once created,
+// so a cached dictionary is only ever incomplete, never wrong; misses reload the user's entries. All queries run
+// through JdbcTemplate on the caller's transaction, i.e. on the connection the caller already holds.
+@Service
+public class CategoryDictionary {
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpiringCache<Long, Entries> dictionaries;
+
+    public CategoryDictionary(JdbcTemplate jdbcTemplate,
+                              @Value("${finance.categories.cache-size:10000}") int maxUsers,
+                              @Value("${finance.categories.cache-ttl-ms:3600000}") long ttlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionaries = new ExpiringCache<>(maxUsers, ttlMs);
+    }
+
+    // Sets the row's category id from its name, adding the name to the owner's dictionary if it is new.
+    // Services call this before saving; CategoryListener only checks that it happened.
+    public void resolve(Categorized row) {
+        if (row.categoryId() != null || row.categoryName() == null) {
+            return;
+        }
+        Long userId = row.getUser().getId();
+        String name = row.categoryName();
+        Map<String, Integer> added = added(userId);
+        Integer id = added != null ? added.get(name) : null;
+        if (id == null) {
+            id = find(userId, name);
+        }
+        if (id == null) {
+            id = upsert(userId, name);
+            remember(userId, name, id);
+        }
+        row.categoryResolved(name, id);
+    }
+
+    // Fills in the names of loaded rows from their ids (see CategoryNameAspect); a user's dictionary is reloaded
+    // at most once per call
+    public void fillNames(Iterable<?> rows) {
+        Map<Long, Entries> reloaded = new HashMap<>();
+        for (Object row : rows) {
+            if (row instanceof Categorized) {
+                fillName((Categorized) row, reloaded);
+            }
+        }
+    }
+
+    public void fillName(Categorized row) {
+        fillName(row, new HashMap<>());
+    }
+
+    // The name of one of the user's ids, or null if it is not theirs
+    public String name(Long userId, Integer id) {
+        String name = entries(userId).names.get(id);
+        return name != null ? name : reload(userId).names.get(id);
+    }
+
+    private void fillName(Categorized row, Map<Long, Entries> reloaded) {
+        Integer id = row.categoryId();
+        if (id == null || row.categoryName() != null) {
+            return;
+        }
+        Long userId = row.getUser().getId();
+        Entries entries = reloaded.get(userId);
+        String name = (entries != null ? entries : entries(userId)).names.get(id);
+        if (name == null && entries == null) {
+            entries = reload(userId);
+            reloaded.put(userId, entries);
+            name = entries.names.get(id);
+        }
+        row.categoryResolved(name, id);
+    }
+
+    // The id for the name if the user has used it before, without adding it
+    public Integer find(Long userId, String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = entries(userId).ids.get(name);
+        return id != null ? id : reload(userId).ids.get(name);
+    }
+
+    // One statement whether or not a concurrent caller added the name first; the no-op update makes the
+    // conflicting row come back from returning
+    private Integer upsert(Long userId, String name) {
+        return jdbcTemplate.queryForObject("insert into category (user_id, name) values (?, ?) " +
+                "on conflict (user_id, name) do update set name = excluded.name returning id", Integer.class, userId, name);
+    }
+
+    // A new id is cached only once the caller commits, so a rollback cannot leave an id that does not exist.
+    // Until then it is kept with the transaction, so a chunk of rows with the same new name upserts it once.
+    private void remember(Long userId, String name, Integer id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries(userId).put(name, id);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Map<String, Integer>> added = (Map<Long, Map<String, Integer>>) TransactionSynchronizationManager.getResource(this);
+        if (added == null) {
+            Map<Long, Map<String, Integer>> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Map.Entry<Long, Map<String, Integer>> user : bound.entrySet()) {
+                        Entries entries = entries(user.getKey());
+                        for (Map.Entry<String, Integer> entry : user.getValue().entrySet()) {
+                            entries.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CategoryDictionary.this);
+                }
+            });
+            added = bound;
+        }
+        added.computeIfAbsent(userId, key -> new HashMap<>()).put(name, id);
+    }
+
+    // Names this transaction added for the user and has not committed yet, or null
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> added(Long userId) {
+        Map<Long, Map<String, Integer>> added = (Map<Long, Map<String, Integer>>) TransactionSynchronizationManager.getResource(this);
+        return added != null ? added.get(userId) : null;
+    }
+
+    private Entries entries(Long userId) {
+        Entries entries = dictionaries.get(userId);
+        return entries != null ? entries : reload(userId);
+    }
+
+    private Entries reload(Long userId) {
+        Entries entries = new Entries();
+        jdbcTemplate.query("select id, name from category where user_id = ?",
+                rs -> {
+                    entries.put(rs.getString(2), rs.getInt(1));
+                }, userId);
+        // A read that can see this transaction's uncommitted names must not be cached
+        if (added(userId) == null) {
+            dictionaries.put(userId, entries);
+        }
+        return entries;
+    }
+
+    private static final class Entries {
+        final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+        void put(String name, Integer id) {
+            ids.put(name, id);
+            names.put(id, name);
+        }
+    }
+}
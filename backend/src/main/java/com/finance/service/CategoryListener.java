@@ -0,0 +1,21 @@
+package com.finance.service;
+
+import com.finance.model.Categorized;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+// Guards that a Categorized row reaches the database with the id for its category name. The id is resolved by
+// the service saving the row (CategoryDictionary.resolve), never here: a lifecycle callback runs mid-flush and
+// must not issue queries of its own.
+public class CategoryListener {
+    // Setting a different name clears the id, which also makes the row dirty so that this runs on update
+    @PrePersist
+    @PreUpdate
+    public void checkResolved(Object entity) {
+        Categorized row = (Categorized) entity;
+        if (row.categoryId() == null && row.categoryName() != null) {
+            throw new IllegalStateException(entity.getClass().getSimpleName() + " saved with category \""
+                    + row.categoryName() + "\" before CategoryDictionary.resolve");
+        }
+    }
+}
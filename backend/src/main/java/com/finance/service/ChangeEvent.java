@@ -0,0 +1,45 @@
+package com.finance.service;
+
+// What a write did to one row of a collection. amountDelta is the change in the collection's running total
+// (spent, earned, owed, saved), so clients can patch summaries without refetching; null when not meaningful.
+// CHANGED covers bulk writes (imports, jobs) after which clients reload the collection.
+public final class ChangeEvent {
+    public enum Action {
+        CREATED, UPDATED, DELETED, CHANGED
+    }
+
+    private static final ChangeEvent CHANGED = new ChangeEvent(Action.CHANGED, null, null, null);
+
+    private final Action action;
+    private final Long id;
+    private final Object data;
+    private final Double amountDelta;
+
+    private ChangeEvent(Action action, Long id, Object data, Double amountDelta) {
+        this.action = action;
+        this.id = id;
+        this.data = data;
+        this.amountDelta = amountDelta;
+    }
+
+    public static ChangeEvent created(Long id, Object data, Double amount) {
+        return new ChangeEvent(Action.CREATED, id, data, amount);
+    }
+
+    public static ChangeEvent updated(Long id, Object data, Double amountDelta) {
+        return new ChangeEvent(Action.UPDATED, id, data, amountDelta);
+    }
+
+    public static ChangeEvent deleted(Long id, Double amountDelta) {
+        return new ChangeEvent(Action.DELETED, id, null, amountDelta);
+    }
+
+    public static ChangeEvent changed() {
+        return CHANGED;
+    }
+
+    public Action getAction() { return action; }
+    public Long getId() { return id; }
+    public Object getData() { return data; }
+    public Double getAmountDelta() { return amountDelta; }
+}
@@ -0,0 +1,274 @@
+package com.finance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans per-user change events out to open SSE streams. Publishing only enqueues: each subscriber has a bounded
+// queue drained by the event sender pool, and a subscriber whose queue is full is disconnected instead of
+// slowing the writer down. Streams are written with non-blocking servlet output, so a client that stops reading
+// never holds a sender thread: its queue waits for the container's write-possible callback, and the subscriber
+// is dropped once the queue overflows or the socket has not been writable for stall-timeout-ms.
+// A reconnecting client has missed events and reloads what it shows.
+@Service
+public class ChangeEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+    private static final String HEARTBEAT = "";
+    private static final byte[] PING_FRAME = ":ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final long timeoutMs;
+    private final long stallTimeoutNanos;
+    private final ConcurrentHashMap<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter publishedCounter;
+    private final Counter evictedCounter;
+
+    public ChangeEventBroadcaster(ObjectMapper objectMapper, @Qualifier("eventSender") ExecutorService sender,
+                                  MeterRegistry meters,
+                                  @Value("${finance.events.buffer-size:256}") int bufferSize,
+                                  @Value("${finance.events.max-subscribers-per-user:8}") int maxPerUser,
+                                  @Value("${finance.events.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${finance.events.stall-timeout-ms:30000}") long stallTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.timeoutMs = timeoutMs;
+        this.stallTimeoutNanos = stallTimeoutMs * 1_000_000L;
+        this.publishedCounter = Counter.builder("change.events.published").description("Change events queued to subscribers")
+                .register(meters);
+        this.evictedCounter = Counter.builder("change.event.subscribers.evicted")
+                .description("SSE subscribers disconnected for falling behind").register(meters);
+        Gauge.builder("change.event.subscribers", open, AtomicInteger::get).description("Open SSE change streams")
+                .register(meters);
+    }
+
+    // Takes over the response as an async text/event-stream; the request thread returns right away
+    public void subscribe(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, async, response.getOutputStream(), bufferSize);
+        open.incrementAndGet();
+        // Listeners first: once the subscriber is in the map a concurrent publish may write to its stream, which
+        // the container only allows after setWriteListener
+        async.addListener(subscriber);
+        subscriber.out.setWriteListener(subscriber);
+        // Added inside compute so a concurrent close() cannot drop the list this subscriber joins, and skipped if
+        // the stream already closed, since close() has then run its removal
+        List<Subscriber> list = subscribers.compute(userId, (id, current) -> {
+            List<Subscriber> joined = current != null ? current : new CopyOnWriteArrayList<>();
+            if (!subscriber.closed.get()) {
+                joined.add(subscriber);
+            }
+            return joined.isEmpty() ? null : joined;
+        });
+        // Oldest streams (usually tabs closed without a clean disconnect) make room for new ones
+        while (list != null && list.size() > maxPerUser) {
+            list.get(0).close();
+        }
+        subscriber.offer(HEARTBEAT);
+    }
+
+    // Called once the write is committed (see ChangeVersionService); serializes once for all of the user's streams
+    public void publish(Long userId, DataCollection collection, long version, ChangeEvent event) {
+        List<Subscriber> list = subscribers.get(userId);
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("collection", collection);
+        payload.put("action", event.getAction());
+        payload.put("id", event.getId());
+        payload.put("version", version);
+        payload.put("amountDelta", event.getAmountDelta());
+        payload.put("data", event.getData());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} {} event", collection, event.getAction(), e);
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            subscriber.offer(json);
+        }
+        publishedCounter.increment(list.size());
+    }
+
+    // Comment lines keep idle streams open through proxies and surface dead connections; streams whose socket
+    // has not accepted bytes for the stall timeout are dropped here too
+    @Scheduled(fixedDelayString = "${finance.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (List<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                if (subscriber.stalledLongerThan(now, stallTimeoutNanos)) {
+                    evictedCounter.increment();
+                    log.debug("Disconnecting stalled change stream of user {}", subscriber.userId);
+                    subscriber.close();
+                } else {
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final Long userId;
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final ArrayBlockingQueue<String> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Set by every schedule(), so a write-possible callback that lands while a drain is finishing is not lost
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // nanoTime since when the socket has refused more bytes, 0 while it is writable
+        private volatile long stalledSince;
+
+        Subscriber(Long userId, AsyncContext async, ServletOutputStream out, int capacity) {
+            this.userId = userId;
+            this.async = async;
+            this.out = out;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(String payload) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(payload)) {
+                evictedCounter.increment();
+                log.debug("Disconnecting slow change stream of user {}", userId);
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        boolean stalledLongerThan(long now, long limitNanos) {
+            long since = stalledSince;
+            return since != 0 && now - since > limitNanos;
+        }
+
+        // At most one drain task per subscriber, so events reach the stream in publish order
+        private void schedule() {
+            pending.set(true);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        // Writes only while the container says the socket can take more; when it cannot, the rest stays queued
+        // until onWritePossible
+        private void drain() {
+            try {
+                while (pending.getAndSet(false) && !closed.get()) {
+                    String payload;
+                    while (out.isReady() && (payload = queue.poll()) != null) {
+                        out.write(payload == HEARTBEAT ? PING_FRAME
+                                : ("event:change\ndata:" + payload + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                    if (out.isReady()) {
+                        out.flush();
+                    }
+                    stalledSince = out.isReady() ? 0 : stalledSince != 0 ? stalledSince : System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (pending.get() && !closed.get()) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            open.decrementAndGet();
+            queue.clear();
+            subscribers.computeIfPresent(userId, (id, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+            try {
+                async.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.finance.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// In-memory per-user, per-collection change counters used as ETags. The process start time is part of
+// the tag so counters restarting from zero never match a tag handed out before a restart, and the user id so
+// one user's tag never validates a cached copy of another user's list.
+@Service
+public class ChangeVersionService {
+    private static final String CACHE_CONTROL = "no-cache, private";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<Long, AtomicLongArray> versions = new ConcurrentHashMap<>();
+    private final ChangeEventBroadcaster events;
+    private final LedgerCache ledgerCache;
+
+    public ChangeVersionService(ChangeEventBroadcaster events, LedgerCache ledgerCache) {
+        this.events = events;
+        this.ledgerCache = ledgerCache;
+    }
+
+    public void changed(Long userId, DataCollection collection) {
+        changed(userId, collection, ChangeEvent.changed());
+    }
+
+    // Bumps after the surrounding transaction commits (immediately without one), so a reader that sees
+    // the new tag also sees the new rows; the event goes out to the user's change streams at the same point
+    public void changed(Long userId, DataCollection collection, ChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(userId, collection, event);
+                }
+            });
+        } else {
+            committed(userId, collection, event);
+        }
+    }
+
+    private void committed(Long userId, DataCollection collection, ChangeEvent event) {
+        // Bulk writes bypass the per-row ledger hooks, so the cached columns are reloaded instead
+        if (event.getAction() == ChangeEvent.Action.CHANGED
+                && (collection == DataCollection.EXPENSES || collection == DataCollection.INCOME)) {
+            ledgerCache.invalidate(userId);
+        }
+        events.publish(userId, collection, bump(userId, collection), event);
+    }
+
+    public long version(Long userId, DataCollection collection) {
+        AtomicLongArray counters = versions.get(userId);
+        return counters != null ? counters.get(collection.ordinal()) : 0;
+    }
+
+    public String etag(Long userId, DataCollection collection) {
+        return "\"" + epoch + "-" + userId + "-" + collection.ordinal() + "-" + version(userId, collection) + "\"";
+    }
+
+    // Answers If-None-Match before any query runs; true means a 304 has been prepared and the caller returns null
+    public boolean checkNotModified(ServletWebRequest request, Long userId, DataCollection collection) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            // The same URL answers differently per bearer token
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        }
+        return request.checkNotModified(etag(userId, collection));
+    }
+
+    private long bump(Long userId, DataCollection collection) {
+        return versions.computeIfAbsent(userId, id -> new AtomicLongArray(DataCollection.values().length))
+                .incrementAndGet(collection.ordinal());
+    }
+}
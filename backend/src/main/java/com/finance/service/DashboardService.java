@@ -0,0 +1,137 @@
+package com.finance.service;
+
+import com.finance.model.SavingsGoal;
+import com.finance.repository.BillReminderRepository;
+import com.finance.repository.DebtRepository;
+import com.finance.repository.ExpenseFilter;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.SavingsGoalRepository;
+import com.finance.util.SqlStatementLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Builds the dashboard from independent parts computed concurrently; a part that fails or exceeds its
+// timeout is left out and listed under "unavailable" instead of failing the whole response. A part that times
+// out is also stopped: its thread is interrupted, and each part runs in a read-only transaction whose timeout
+// is passed to its SQL as a query timeout, so the database cancels a statement still running.
+@Service
+public class DashboardService {
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final FinancialReportService reportService;
+    private final ExpenseRepository expenseRepository;
+    private final BillReminderRepository billReminderRepository;
+    private final DebtRepository debtRepository;
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final ExecutorService executor;
+    private final TransactionTemplate partTransaction;
+    private final long partTimeoutMs;
+    private final int recentExpenses;
+    private final int upcomingBillDays;
+
+    public DashboardService(FinancialReportService reportService, ExpenseRepository expenseRepository,
+                            BillReminderRepository billReminderRepository, DebtRepository debtRepository,
+                            SavingsGoalRepository savingsGoalRepository,
+                            @Qualifier("fanOutExecutor") ExecutorService executor,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${finance.dashboard.part-timeout-ms:2000}") long partTimeoutMs,
+                            @Value("${finance.dashboard.recent-expenses:50}") int recentExpenses,
+                            @Value("${finance.dashboard.upcoming-bill-days:30}") int upcomingBillDays) {
+        this.reportService = reportService;
+        this.expenseRepository = expenseRepository;
+        this.billReminderRepository = billReminderRepository;
+        this.debtRepository = debtRepository;
+        this.savingsGoalRepository = savingsGoalRepository;
+        this.executor = executor;
+        this.partTimeoutMs = partTimeoutMs;
+        this.partTransaction = new TransactionTemplate(transactionManager);
+        partTransaction.setReadOnly(true);
+        // Whole seconds, rounded up so the part's own timeout fires first
+        partTransaction.setTimeout((int) Math.max(1, (partTimeoutMs + 999) / 1000));
+        this.recentExpenses = recentExpenses;
+        this.upcomingBillDays = upcomingBillDays;
+    }
+
+    public Map<String, Object> getDashboard(Long userId) {
+        LocalDate today = LocalDate.now();
+        Map<String, CompletableFuture<Object>> parts = new LinkedHashMap<>();
+        parts.put("summary", submit(() -> reportService.getFinancialSummary(userId)));
+        parts.put("spending", submit(() -> {
+            Map<String, Object> spending = reportService.getSpendingBreakdown(userId);
+            spending.put("highest", expenseRepository.findMaxAmountByUserId(userId));
+            return spending;
+        }));
+        parts.put("recentExpenses", submit(() ->
+                expenseRepository.findPage(userId, new ExpenseFilter(), null, recentExpenses)));
+        parts.put("upcomingBills", submit(() -> billReminderRepository
+                .findByUserIdAndPaidFalseAndDueDateBetweenOrderByDueDate(userId, today, today.plusDays(upcomingBillDays))));
+        parts.put("debtTotals", submit(() -> debtRepository.sumByUserId(userId)));
+        parts.put("goalProgress", submit(() -> goalProgress(savingsGoalRepository.findByUserId(userId))));
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Object>> part : parts.entrySet()) {
+            try {
+                dashboard.put(part.getKey(), part.getValue().join());
+            } catch (RuntimeException e) {
+                log.warn("Dashboard part {} unavailable for user {}: {}", part.getKey(), userId, e.toString());
+                unavailable.add(part.getKey());
+            }
+        }
+        dashboard.put("unavailable", unavailable);
+        return dashboard;
+    }
+
+    private CompletableFuture<Object> submit(Supplier<Object> part) {
+        Supplier<Object> task = SqlStatementLog.propagate(() -> partTransaction.execute(status -> part.get()));
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        // orTimeout only completes the future; the task itself has to be cancelled
+        result.orTimeout(partTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error != null) {
+                        running.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    private static List<Map<String, Object>> goalProgress(List<SavingsGoal> goals) {
+        List<Map<String, Object>> progress = new ArrayList<>();
+        for (SavingsGoal goal : goals) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", goal.getId());
+            entry.put("name", goal.getName());
+            entry.put("currentAmount", goal.getCurrentAmount());
+            entry.put("targetAmount", goal.getTargetAmount());
+            entry.put("targetDate", goal.getTargetDate());
+            entry.put("completed", goal.isCompleted());
+            entry.put("percent", goal.getTargetAmount() > 0
+                    ? Math.min(100, goal.getCurrentAmount() / goal.getTargetAmount() * 100) : 0);
+            progress.add(entry);
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,11 @@
+package com.finance.service;
+
+// Per-user collections whose list endpoints are versioned for conditional GETs
+public enum DataCollection {
+    EXPENSES,
+    INCOME,
+    DEBTS,
+    BILL_REMINDERS,
+    SAVINGS_GOALS,
+    BUDGETS
+}
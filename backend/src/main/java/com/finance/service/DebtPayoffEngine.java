@@ -0,0 +1,186 @@
+package com.finance.service;
+
+import java.util.Arrays;
+
+// Month-by-month amortization of a set of debts paid with a fixed monthly budget: the sum of all minimum
+// payments plus an extra amount. Minimums of paid-off debts roll over, and whatever is left each month goes
+// to the debts in priority order. Balances live in primitive arrays and the month loop allocates nothing.
+public final class DebtPayoffEngine {
+    public enum Strategy {
+        AVALANCHE, // highest interest rate first
+        SNOWBALL,  // smallest balance first
+        CUSTOM     // caller-supplied order
+    }
+
+    public static final int MAX_MONTHS = 1200;
+    private static final double PAID_OFF = 0.005;
+
+    private final int count;
+    private final double[] startBalance;
+    private final double[] monthlyRate;
+    private final double[] minimum;
+    private final double minimumTotal;
+
+    public DebtPayoffEngine(double[] balances, double[] annualRatePercent, double[] minimums) {
+        this.count = balances.length;
+        this.startBalance = balances.clone();
+        this.monthlyRate = new double[count];
+        this.minimum = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            monthlyRate[i] = Math.max(0, annualRatePercent[i]) / 100 / 12;
+            // A negative minimum would turn its payment into a charge that funds the other debts
+            minimum[i] = Math.max(0, minimums[i]);
+            total += minimum[i];
+        }
+        this.minimumTotal = total;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Debt indexes in payment priority; for CUSTOM, indexes missing from customOrder follow in avalanche order
+    public int[] order(Strategy strategy, int[] customOrder) {
+        Integer[] boxed = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            boxed[i] = i;
+        }
+        if (strategy == Strategy.SNOWBALL) {
+            Arrays.sort(boxed, (a, b) -> startBalance[a] != startBalance[b]
+                    ? Double.compare(startBalance[a], startBalance[b])
+                    : Double.compare(monthlyRate[b], monthlyRate[a]));
+        } else {
+            Arrays.sort(boxed, (a, b) -> monthlyRate[a] != monthlyRate[b]
+                    ? Double.compare(monthlyRate[b], monthlyRate[a])
+                    : Double.compare(startBalance[a], startBalance[b]));
+        }
+        int[] order = new int[count];
+        int next = 0;
+        boolean[] placed = new boolean[count];
+        if (strategy == Strategy.CUSTOM && customOrder != null) {
+            for (int index : customOrder) {
+                if (index >= 0 && index < count && !placed[index]) {
+                    placed[index] = true;
+                    order[next++] = index;
+                }
+            }
+        }
+        for (Integer index : boxed) {
+            if (!placed[index]) {
+                order[next++] = index;
+            }
+        }
+        return order;
+    }
+
+    public Result simulate(int[] order, double extraPayment, boolean recordSchedule) {
+        Result result = new Result(count, recordSchedule);
+        double[] balance = startBalance.clone();
+        int active = 0;
+        for (int i = 0; i < count; i++) {
+            if (balance[i] > PAID_OFF) {
+                active++;
+            } else {
+                balance[i] = 0;
+                result.payoffMonth[i] = 0;
+            }
+        }
+        double budget = minimumTotal + Math.max(0, extraPayment);
+
+        int month = 0;
+        while (active > 0 && month < MAX_MONTHS) {
+            month++;
+            double available = budget;
+            int row = recordSchedule ? result.ensureCapacity(month) : 0;
+            for (int i = 0; i < count; i++) {
+                if (result.payoffMonth[i] >= 0) {
+                    continue;
+                }
+                double interest = balance[i] * monthlyRate[i];
+                balance[i] += interest;
+                result.interest[i] += interest;
+                double payment = Math.min(Math.min(minimum[i], balance[i]), available);
+                balance[i] -= payment;
+                available -= payment;
+                result.paid[i] += payment;
+                if (recordSchedule) {
+                    result.scheduleInterest[row + i] = interest;
+                    result.schedulePayment[row + i] = payment;
+                }
+            }
+            for (int p = 0; p < count && available > 0; p++) {
+                int i = order[p];
+                if (result.payoffMonth[i] >= 0) {
+                    continue;
+                }
+                double payment = Math.min(available, balance[i]);
+                balance[i] -= payment;
+                available -= payment;
+                result.paid[i] += payment;
+                if (recordSchedule) {
+                    result.schedulePayment[row + i] += payment;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (result.payoffMonth[i] < 0 && balance[i] <= PAID_OFF) {
+                    balance[i] = 0;
+                    result.payoffMonth[i] = month;
+                    active--;
+                }
+                if (recordSchedule) {
+                    result.scheduleBalance[row + i] = balance[i];
+                }
+            }
+        }
+        result.months = active == 0 ? month : -1;
+        result.scheduleMonths = recordSchedule ? month : 0;
+        for (int i = 0; i < count; i++) {
+            result.totalInterest += result.interest[i];
+            result.totalPaid += result.paid[i];
+        }
+        return result;
+    }
+
+    // Per-debt outcome; payoffMonth is -1 for a debt still open after MAX_MONTHS. Schedules are row-major,
+    // one row of count values per month.
+    public static final class Result {
+        private final int count;
+        public final int[] payoffMonth;
+        public final double[] interest;
+        public final double[] paid;
+        public int months;
+        public double totalInterest;
+        public double totalPaid;
+        public int scheduleMonths;
+        public double[] schedulePayment;
+        public double[] scheduleInterest;
+        public double[] scheduleBalance;
+
+        Result(int count, boolean recordSchedule) {
+            this.count = count;
+            this.payoffMonth = new int[count];
+            Arrays.fill(payoffMonth, -1);
+            this.interest = new double[count];
+            this.paid = new double[count];
+            if (recordSchedule) {
+                int rows = 60;
+                schedulePayment = new double[rows * count];
+                scheduleInterest = new double[rows * count];
+                scheduleBalance = new double[rows * count];
+            }
+        }
+
+        // Grows the schedule by doubling, so a 30-year plan costs a handful of copies rather than one per month
+        int ensureCapacity(int month) {
+            int needed = month * count;
+            if (needed > scheduleBalance.length) {
+                int size = Math.max(needed, scheduleBalance.length * 2);
+                schedulePayment = Arrays.copyOf(schedulePayment, size);
+                scheduleInterest = Arrays.copyOf(scheduleInterest, size);
+                scheduleBalance = Arrays.copyOf(scheduleBalance, size);
+            }
+            return (month - 1) * count;
+        }
+    }
+}
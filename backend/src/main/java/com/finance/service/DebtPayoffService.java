@@ -0,0 +1,173 @@
+package com.finance.service;
+
+import com.finance.model.Debt;
+import com.finance.repository.DebtRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+@Service
+public class DebtPayoffService {
+    private final DebtRepository debtRepository;
+    private final ForkJoinPool pool;
+    private final int maxScenarios;
+
+    public DebtPayoffService(DebtRepository debtRepository,
+                             @Qualifier("simulationPool") ForkJoinPool pool,
+                             @Value("${finance.payoff.max-scenarios:2000}") int maxScenarios) {
+        this.debtRepository = debtRepository;
+        this.pool = pool;
+        this.maxScenarios = maxScenarios;
+    }
+
+    // One plan with per-debt payoff dates, interest and (optionally) the monthly schedule.
+    // customOrder lists debt ids in payment priority and only applies to the CUSTOM strategy.
+    public Map<String, Object> plan(Long userId, DebtPayoffEngine.Strategy strategy, double extraPayment,
+                                    List<Long> customOrder, boolean includeSchedule) {
+        List<Debt> debts = debtRepository.findByUserId(userId);
+        DebtPayoffEngine engine = engine(debts);
+        int[] order = engine.order(strategy, customIndexes(debts, customOrder));
+        DebtPayoffEngine.Result result = engine.simulate(order, extraPayment, includeSchedule);
+        YearMonth start = YearMonth.now();
+
+        List<Map<String, Object>> perDebt = new ArrayList<>();
+        for (int p = 0; p < order.length; p++) {
+            int i = order[p];
+            Debt debt = debts.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", debt.getId());
+            entry.put("name", debt.getName());
+            entry.put("priority", p + 1);
+            entry.put("startingBalance", debt.getRemainingAmount());
+            entry.put("payoffMonths", result.payoffMonth[i] >= 0 ? result.payoffMonth[i] : null);
+            entry.put("payoffDate", result.payoffMonth[i] >= 0 ? start.plusMonths(result.payoffMonth[i]).toString() : null);
+            entry.put("totalInterest", round(result.interest[i]));
+            entry.put("totalPaid", round(result.paid[i]));
+            if (includeSchedule) {
+                entry.put("schedule", schedule(result, i, debts.size(), start));
+            }
+            perDebt.add(entry);
+        }
+
+        Map<String, Object> plan = summary(strategy, extraPayment, result, start);
+        plan.put("debts", perDebt);
+        return plan;
+    }
+
+    // Compares every strategy/extra-payment combination, each simulated as its own fork-join task
+    public Map<String, Object> sweep(Long userId, List<DebtPayoffEngine.Strategy> strategies,
+                                     double extraFrom, double extraTo, double extraStep, List<Long> customOrder) {
+        if (extraStep <= 0 || extraTo < extraFrom) {
+            throw new IllegalArgumentException("Extra payment range must have extraTo >= extraFrom and extraStep > 0");
+        }
+        int steps = (int) Math.floor((extraTo - extraFrom) / extraStep + 1e-9) + 1;
+        if ((long) steps * strategies.size() > maxScenarios) {
+            throw new IllegalArgumentException("Sweep exceeds " + maxScenarios + " scenarios");
+        }
+        List<Debt> debts = debtRepository.findByUserId(userId);
+        DebtPayoffEngine engine = engine(debts);
+        int[] custom = customIndexes(debts, customOrder);
+        YearMonth start = YearMonth.now();
+
+        long began = System.nanoTime();
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>();
+        for (DebtPayoffEngine.Strategy strategy : strategies) {
+            int[] order = engine.order(strategy, custom);
+            for (int s = 0; s < steps; s++) {
+                double extra = extraFrom + s * extraStep;
+                tasks.add(() -> summary(strategy, extra, engine.simulate(order, extra, false), start));
+            }
+        }
+        List<Map<String, Object>> scenarios = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Map<String, Object>> future : pool.invokeAll(tasks)) {
+                scenarios.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payoff sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payoff sweep failed", e.getCause());
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("debtCount", debts.size());
+        response.put("scenarioCount", scenarios.size());
+        response.put("elapsedMs", (System.nanoTime() - began) / 1_000_000.0);
+        response.put("scenarios", scenarios);
+        return response;
+    }
+
+    private static DebtPayoffEngine engine(List<Debt> debts) {
+        int n = debts.size();
+        double[] balances = new double[n];
+        double[] rates = new double[n];
+        double[] minimums = new double[n];
+        for (int i = 0; i < n; i++) {
+            Debt debt = debts.get(i);
+            balances[i] = debt.getRemainingAmount();
+            rates[i] = debt.getInterestRate();
+            minimums[i] = debt.getMinimumPayment();
+        }
+        return new DebtPayoffEngine(balances, rates, minimums);
+    }
+
+    private static int[] customIndexes(List<Debt> debts, List<Long> customOrder) {
+        if (customOrder == null) {
+            return null;
+        }
+        int[] indexes = new int[customOrder.size()];
+        for (int p = 0; p < indexes.length; p++) {
+            indexes[p] = -1;
+            for (int i = 0; i < debts.size(); i++) {
+                if (debts.get(i).getId().equals(customOrder.get(p))) {
+                    indexes[p] = i;
+                    break;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private static Map<String, Object> summary(DebtPayoffEngine.Strategy strategy, double extraPayment,
+                                               DebtPayoffEngine.Result result, YearMonth start) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("strategy", strategy);
+        summary.put("extraPayment", extraPayment);
+        summary.put("debtFree", result.months >= 0);
+        summary.put("months", result.months >= 0 ? result.months : null);
+        summary.put("debtFreeDate", result.months >= 0 ? start.plusMonths(result.months).toString() : null);
+        summary.put("totalInterest", round(result.totalInterest));
+        summary.put("totalPaid", round(result.totalPaid));
+        return summary;
+    }
+
+    private static List<Map<String, Object>> schedule(DebtPayoffEngine.Result result, int debt, int count, YearMonth start) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int last = result.payoffMonth[debt] >= 0 ? result.payoffMonth[debt] : result.scheduleMonths;
+        for (int month = 1; month <= last; month++) {
+            int cell = (month - 1) * count + debt;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("month", start.plusMonths(month).toString());
+            row.put("payment", round(result.schedulePayment[cell]));
+            row.put("interest", round(result.scheduleInterest[cell]));
+            row.put("balance", round(result.scheduleBalance[cell]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
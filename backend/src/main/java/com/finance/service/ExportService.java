@@ -0,0 +1,128 @@
+package com.finance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.model.BillReminder;
+import com.finance.model.Debt;
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import com.finance.repository.BillReminderRepository;
+import com.finance.repository.DebtRepository;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.IncomeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes a user's full history row by row from a database cursor so memory use does not grow with row count
+@Service
+public class ExportService {
+    public enum Format { CSV, NDJSON }
+
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final DebtRepository debtRepository;
+    private final BillReminderRepository billReminderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportService(ExpenseRepository expenseRepository, IncomeRepository incomeRepository,
+                         DebtRepository debtRepository, BillReminderRepository billReminderRepository,
+                         EntityManager entityManager, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.debtRepository = debtRepository;
+        this.billReminderRepository = billReminderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void exportExpenses(Long userId, Format format, OutputStream out) {
+        export(() -> expenseRepository.streamByUserIdOrderById(userId), format, out,
+                new String[] {"id", "date", "category", "amount", "description", "recurring"},
+                e -> new Object[] {e.getId(), e.getDate(), e.getCategory(), e.getAmount(), e.getDescription(), e.isRecurring()});
+    }
+
+    public void exportIncomes(Long userId, Format format, OutputStream out) {
+        export(() -> incomeRepository.streamByUserIdOrderById(userId), format, out,
+                new String[] {"id", "date", "source", "amount", "description", "recurring", "frequency"},
+                i -> new Object[] {i.getId(), i.getDate(), i.getSource(), i.getAmount(), i.getDescription(),
+                        i.isRecurring(), i.getFrequency()});
+    }
+
+    public void exportDebts(Long userId, Format format, OutputStream out) {
+        export(() -> debtRepository.streamByUserIdOrderById(userId), format, out,
+                new String[] {"id", "name", "type", "totalAmount", "remainingAmount", "interestRate",
+                        "minimumPayment", "startDate", "targetPayoffDate"},
+                d -> new Object[] {d.getId(), d.getName(), d.getType(), d.getTotalAmount(), d.getRemainingAmount(),
+                        d.getInterestRate(), d.getMinimumPayment(), d.getStartDate(), d.getTargetPayoffDate()});
+    }
+
+    public void exportBillReminders(Long userId, Format format, OutputStream out) {
+        export(() -> billReminderRepository.streamByUserIdOrderById(userId), format, out,
+                new String[] {"id", "billName", "amount", "dueDate", "recurring", "frequency", "paid", "category"},
+                b -> new Object[] {b.getId(), b.getBillName(), b.getAmount(), b.getDueDate(), b.isRecurring(),
+                        b.getFrequency(), b.isPaid(), b.getCategory()});
+    }
+
+    private <T> void export(Supplier<Stream<T>> rows, Format format, OutputStream out,
+                            String[] header, Function<T, Object[]> csvRow) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            try (Stream<T> stream = rows.get()) {
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, header);
+                }
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    if (format == Format.CSV) {
+                        writeCsvLine(writer, csvRow.apply(row));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    entityManager.detach(row);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,52 +1,61 @@
 package com.finance.service;
 
-import com.finance.model.Expense;
-import com.finance.model.Income;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.repository.DailySpending;
+import com.finance.repository.ExpenseFilter;
 import com.finance.repository.ExpenseRepository;
-import com.finance.repository.IncomeRepository;
+import com.finance.repository.KindTotal;
+import com.finance.repository.MonthlyRollupRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class FinancialReportService {
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final LedgerCache ledgerCache;
     private final ExpenseRepository expenseRepository;
-    private final IncomeRepository incomeRepository;
+    private final CategoryDictionary categories;
 
-    public FinancialReportService(ExpenseRepository expenseRepository, IncomeRepository incomeRepository) {
+    public FinancialReportService(MonthlyRollupRepository rollupRepository, LedgerCache ledgerCache,
+                                  ExpenseRepository expenseRepository, CategoryDictionary categories) {
+        this.rollupRepository = rollupRepository;
+        this.ledgerCache = ledgerCache;
         this.expenseRepository = expenseRepository;
-        this.incomeRepository = incomeRepository;
+        this.categories = categories;
     }
 
-    public Map<String, Object> generateMonthlyReport(String username, int year, int month) {
-        YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDate startDate = yearMonth.atDay(1);
-        LocalDate endDate = yearMonth.atEndOfMonth();
-
-        List<Expense> expenses = expenseRepository.findByUserUsername(username);
-        List<Income> incomes = incomeRepository.findByUserUsername(username);
-
-        // Filter by date - for expenses we assume they have a date field (need to add it)
-        // For now, we'll work with all data
-        double totalExpenses = expenses.stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
-
-        double totalIncome = incomes.stream()
-                .filter(i -> i.getDate() != null && 
-                        !i.getDate().isBefore(startDate) && 
-                        !i.getDate().isAfter(endDate))
-                .mapToDouble(Income::getAmount)
-                .sum();
-
-        Map<String, Double> expensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
+    public Map<String, Object> generateMonthlyReport(Long userId, int year, int month) {
+        Map<String, Double> expensesByCategory;
+        Map<String, Double> incomeBySource;
+        double totalExpenses;
+        double totalIncome;
+        LedgerColumns columns = ledgerCache.get(userId);
+        if (columns != null) {
+            LocalDate start = LocalDate.of(year, month, 1);
+            int[] monthStarts = {(int) start.toEpochDay()};
+            int end = (int) start.plusMonths(1).toEpochDay();
+            LedgerColumns.Aggregate expenseCells = columns.aggregate(LedgerKind.EXPENSE, monthStarts, end);
+            LedgerColumns.Aggregate incomeCells = columns.aggregate(LedgerKind.INCOME, monthStarts, end);
+            expensesByCategory = toMap(expenseCells);
+            incomeBySource = toMap(incomeCells);
+            totalExpenses = sum(expenseCells);
+            totalIncome = sum(incomeCells);
+        } else {
+            int period = year * 100 + month;
+            List<MonthlyRollup> expenseRows =
+                    rollupRepository.findByUserIdAndKindAndPeriod(userId, LedgerKind.EXPENSE, period);
+            List<MonthlyRollup> incomeRows =
+                    rollupRepository.findByUserIdAndKindAndPeriod(userId, LedgerKind.INCOME, period);
+            expensesByCategory = toMap(expenseRows);
+            incomeBySource = toMap(incomeRows);
+            totalExpenses = sum(expenseRows);
+            totalIncome = sum(incomeRows);
+        }
 
         Map<String, Object> report = new HashMap<>();
         report.put("month", month);
@@ -55,78 +64,200 @@ public class FinancialReportService {
         report.put("totalExpenses", totalExpenses);
         report.put("netSavings", totalIncome - totalExpenses);
         report.put("expensesByCategory", expensesByCategory);
+        report.put("incomeBySource", incomeBySource);
         report.put("savingsRate", totalIncome > 0 ? ((totalIncome - totalExpenses) / totalIncome * 100) : 0);
 
         return report;
     }
 
-    public Map<String, Object> generateYearlyReport(String username, int year) {
-        List<Expense> expenses = expenseRepository.findByUserUsername(username);
-        List<Income> incomes = incomeRepository.findByUserUsername(username);
-
-        double totalExpenses = expenses.stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
-
-        double totalIncome = incomes.stream()
-                .filter(i -> i.getDate() != null && i.getDate().getYear() == year)
-                .mapToDouble(Income::getAmount)
-                .sum();
-
-        Map<String, Double> expensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
-
-        // Monthly breakdown
-        Map<Integer, Double> monthlyExpenses = new HashMap<>();
-        Map<Integer, Double> monthlyIncome = new HashMap<>();
-        
-        for (int month = 1; month <= 12; month++) {
-            final int currentMonth = month;
-            double monthExpenses = expenses.stream()
-                    .mapToDouble(Expense::getAmount)
-                    .sum() / 12; // Simplified - should filter by actual month
-            
-            double monthIncome = incomes.stream()
-                    .filter(i -> i.getDate() != null && 
-                            i.getDate().getYear() == year && 
-                            i.getDate().getMonthValue() == currentMonth)
-                    .mapToDouble(Income::getAmount)
-                    .sum();
-            
-            monthlyExpenses.put(month, monthExpenses);
-            monthlyIncome.put(month, monthIncome);
+    public Map<String, Object> generateYearlyReport(Long userId, int year) {
+        ReportBuckets expenses = new ReportBuckets();
+        ReportBuckets incomes = new ReportBuckets();
+        LedgerColumns columns = ledgerCache.get(userId);
+        if (columns != null) {
+            int[] monthStarts = new int[12];
+            for (int month = 1; month <= 12; month++) {
+                monthStarts[month - 1] = (int) LocalDate.of(year, month, 1).toEpochDay();
+            }
+            int end = (int) LocalDate.of(year + 1, 1, 1).toEpochDay();
+            fill(expenses, columns.aggregate(LedgerKind.EXPENSE, monthStarts, end));
+            fill(incomes, columns.aggregate(LedgerKind.INCOME, monthStarts, end));
+        } else {
+            for (MonthlyRollup row : rollupRepository.findByUserIdAndPeriodBetween(userId, year * 100 + 1, year * 100 + 12)) {
+                if (row.getEntryCount() == 0) {
+                    continue;
+                }
+                ReportBuckets buckets = row.getKind() == LedgerKind.EXPENSE ? expenses : incomes;
+                buckets.add(row.getPeriod() % 100, categoryName(row.getCategory()), row.getTotal());
+            }
         }
 
+        double totalExpenses = expenses.getTotal();
+        double totalIncome = incomes.getTotal();
+
         Map<String, Object> report = new HashMap<>();
         report.put("year", year);
         report.put("totalIncome", totalIncome);
         report.put("totalExpenses", totalExpenses);
         report.put("netSavings", totalIncome - totalExpenses);
-        report.put("expensesByCategory", expensesByCategory);
-        report.put("monthlyExpenses", monthlyExpenses);
-        report.put("monthlyIncome", monthlyIncome);
+        report.put("expensesByCategory", expenses.categoryTotals());
+        report.put("incomeBySource", incomes.categoryTotals());
+        report.put("monthlyExpenses", expenses.monthlyTotals());
+        report.put("monthlyIncome", incomes.monthlyTotals());
         report.put("savingsRate", totalIncome > 0 ? ((totalIncome - totalExpenses) / totalIncome * 100) : 0);
 
         return report;
     }
 
-    public Map<String, Object> getFinancialSummary(String username) {
-        List<Expense> expenses = expenseRepository.findByUserUsername(username);
-        List<Income> incomes = incomeRepository.findByUserUsername(username);
+    // Every expense of the user summed by month and category, straight from the rollups; month is "yyyy-MM",
+    // or null for undated expenses
+    public Map<String, Object> getSpendingBreakdown(Long userId) {
+        List<Map<String, Object>> cells = new ArrayList<>();
+        double total = 0;
+        long count = 0;
+        for (MonthlyRollup row : rollupRepository.findByUserIdAndKindOrderByPeriod(userId, LedgerKind.EXPENSE)) {
+            if (row.getEntryCount() == 0) {
+                continue;
+            }
+            int period = row.getPeriod();
+            Map<String, Object> cell = new LinkedHashMap<>();
+            cell.put("month", period == 0 ? null : String.format("%04d-%02d", period / 100, period % 100));
+            cell.put("category", categoryName(row.getCategory()));
+            cell.put("total", row.getTotal());
+            cell.put("count", row.getEntryCount());
+            cells.add(cell);
+            total += row.getTotal();
+            count += row.getEntryCount();
+        }
+
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("total", total);
+        breakdown.put("count", count);
+        breakdown.put("cells", cells);
+        return breakdown;
+    }
+
+    // The same breakdown over the expenses matching filter, which the rollups cannot answer, so it is aggregated
+    // from the expense rows; also carries the highest single amount
+    public Map<String, Object> getSpendingBreakdown(Long userId, ExpenseFilter filter) {
+        // Keyed by month then category, so undated cells ("" month) sort first like the rollup breakdown
+        Map<String, Map<String, Object>> cellsByKey = new TreeMap<>();
+        double total = 0;
+        long count = 0;
+        Double highest = null;
+        for (DailySpending group : expenseRepository.sumByDateAndCategory(userId, filter)) {
+            String month = group.getDate() == null ? null
+                    : String.format("%04d-%02d", group.getDate().getYear(), group.getDate().getMonthValue());
+            String name = group.getCategoryId() == null ? null : categories.name(userId, group.getCategoryId());
+            String category = name == null ? UNCATEGORIZED : categoryName(name);
+            Map<String, Object> cell = cellsByKey.computeIfAbsent((month == null ? "" : month) + "/" + category, key -> {
+                Map<String, Object> created = new LinkedHashMap<>();
+                created.put("month", month);
+                created.put("category", category);
+                created.put("total", 0.0);
+                created.put("count", 0L);
+                return created;
+            });
+            cell.put("total", (Double) cell.get("total") + group.getTotal());
+            cell.put("count", (Long) cell.get("count") + group.getCount());
+            total += group.getTotal();
+            count += group.getCount();
+            highest = highest == null ? group.getHighest() : Math.max(highest, group.getHighest());
+        }
+
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("total", total);
+        breakdown.put("count", count);
+        breakdown.put("highest", highest);
+        breakdown.put("cells", new ArrayList<>(cellsByKey.values()));
+        return breakdown;
+    }
+
+    public Map<String, Object> getFinancialSummary(Long userId) {
+        double totalExpenses = 0;
+        double totalIncome = 0;
+        long expenseCount = 0;
+        long incomeCount = 0;
+        LedgerColumns columns = ledgerCache.get(userId);
+        if (columns != null) {
+            totalExpenses = columns.totalCents(LedgerKind.EXPENSE) / 100.0;
+            totalIncome = columns.totalCents(LedgerKind.INCOME) / 100.0;
+            expenseCount = columns.entryCount(LedgerKind.EXPENSE);
+            incomeCount = columns.entryCount(LedgerKind.INCOME);
+        } else {
+            for (KindTotal total : rollupRepository.sumByKind(userId)) {
+                if (total.getKind() == LedgerKind.EXPENSE) {
+                    totalExpenses = total.getTotal();
+                    expenseCount = total.getEntryCount();
+                } else {
+                    totalIncome = total.getTotal();
+                    incomeCount = total.getEntryCount();
+                }
+            }
+        }
 
-        double totalExpenses = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        double totalIncome = incomes.stream().mapToDouble(Income::getAmount).sum();
-        
         Map<String, Object> summary = new HashMap<>();
         summary.put("totalIncome", totalIncome);
         summary.put("totalExpenses", totalExpenses);
         summary.put("netSavings", totalIncome - totalExpenses);
-        summary.put("expenseCount", expenses.size());
-        summary.put("incomeCount", incomes.size());
+        summary.put("expenseCount", expenseCount);
+        summary.put("incomeCount", incomeCount);
         
         return summary;
     }
+
+    private static double sum(List<MonthlyRollup> rows) {
+        double total = 0;
+        for (MonthlyRollup row : rows) {
+            total += row.getTotal();
+        }
+        return total;
+    }
+
+    private static Map<String, Double> toMap(List<MonthlyRollup> rows) {
+        Map<String, Double> result = new HashMap<>();
+        for (MonthlyRollup row : rows) {
+            if (row.getEntryCount() == 0) {
+                continue;
+            }
+            result.merge(categoryName(row.getCategory()), row.getTotal(), Double::sum);
+        }
+        return result;
+    }
+
+    private static double sum(LedgerColumns.Aggregate cells) {
+        long cents = 0;
+        for (int month = 0; month < cells.months(); month++) {
+            for (int category = 0; category < cells.categories(); category++) {
+                cents += cells.cents(month, category);
+            }
+        }
+        return cents / 100.0;
+    }
+
+    private static Map<String, Double> toMap(LedgerColumns.Aggregate cells) {
+        Map<String, Double> result = new HashMap<>();
+        for (int category = 0; category < cells.categories(); category++) {
+            if (cells.count(0, category) == 0) {
+                continue;
+            }
+            result.merge(categoryName(cells.category(category)), cells.cents(0, category) / 100.0, Double::sum);
+        }
+        return result;
+    }
+
+    // Cells whose entries were all removed again are skipped, as with empty rollup rows
+    private static void fill(ReportBuckets buckets, LedgerColumns.Aggregate cells) {
+        for (int month = 0; month < cells.months(); month++) {
+            for (int category = 0; category < cells.categories(); category++) {
+                if (cells.count(month, category) != 0) {
+                    buckets.add(month + 1, categoryName(cells.category(category)), cells.cents(month, category) / 100.0);
+                }
+            }
+        }
+    }
+
+    private static String categoryName(String category) {
+        return category.isEmpty() ? UNCATEGORIZED : category;
+    }
 }
@@ -0,0 +1,276 @@
+package com.finance.service;
+
+import com.finance.model.LedgerKind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional per-user LedgerColumns kept in memory for analytics (finance.ledger-cache.enabled). A user's columns
+// are loaded from expense and income on first use and then follow committed writes by appending. Bulk writes
+// (imports, recurring copies) drop the user's copy. Least recently used users are evicted once the estimated
+// size of all copies passes max-bytes.
+// A load cannot tell whether a write committing around the same time is in what it read, so a load that overlaps
+// any commit of the user (from beforeCommit until the append is done) answers its request but is not kept.
+@Service
+public class LedgerCache {
+    private static final Logger log = LoggerFactory.getLogger(LedgerCache.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long maxBytes;
+    // Access-ordered for LRU; entries, loads, committing and bytes are guarded by this
+    private final LinkedHashMap<Long, LedgerColumns> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Load> loads = new HashMap<>();
+    // Per user, transactions between beforeCommit and the end of their afterCommit append
+    private final Map<Long, Integer> committing = new HashMap<>();
+    private long bytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LedgerCache(JdbcTemplate jdbcTemplate, MeterRegistry meters,
+                       @Value("${finance.ledger-cache.enabled:false}") boolean enabled,
+                       @Value("${finance.ledger-cache.max-bytes:268435456}") long maxBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        if (enabled) {
+            Gauge.builder("ledger.cache.bytes", this, LedgerCache::bytes)
+                    .description("Estimated size of the columnar ledger cache").register(meters);
+            Gauge.builder("ledger.cache.users", this, LedgerCache::users)
+                    .description("Users with a columnar ledger in memory").register(meters);
+            FunctionCounter.builder("ledger.cache.requests", hits, AtomicLong::get)
+                    .description("Columnar ledger lookups").tag("result", "hit").register(meters);
+            FunctionCounter.builder("ledger.cache.requests", misses, AtomicLong::get)
+                    .description("Columnar ledger lookups").tag("result", "miss").register(meters);
+            FunctionCounter.builder("ledger.cache.evictions", evictions, AtomicLong::get)
+                    .description("Columnar ledgers evicted for the memory budget").register(meters);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The user's columns, loading them on a miss; concurrent misses for the same user share one load.
+    // null when the cache is off or the ledger cannot be held in columns, in which case callers use the rollups.
+    public LedgerColumns get(Long userId) {
+        if (!enabled) {
+            return null;
+        }
+        Load load;
+        boolean owner = false;
+        synchronized (this) {
+            LedgerColumns cached = entries.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            misses.incrementAndGet();
+            load = loads.get(userId);
+            if (load == null) {
+                load = new Load();
+                load.stale = committing.containsKey(userId);
+                loads.put(userId, load);
+                owner = true;
+            }
+        }
+        if (!owner) {
+            return load.await();
+        }
+        LedgerColumns columns = null;
+        try {
+            columns = read(userId);
+        } finally {
+            synchronized (this) {
+                loads.remove(userId);
+                // A write that committed around the read may or may not be in it; the columns still answer
+                // this request but are not kept
+                if (columns != null && !load.stale) {
+                    entries.put(userId, columns);
+                    bytes += columns.estimatedBytes();
+                    evictOverBudget(userId);
+                }
+            }
+            load.complete(columns);
+        }
+        return columns;
+    }
+
+    // Appends one entry (count +1) or its negation (count -1) after the surrounding transaction commits
+    public void record(Long userId, LedgerKind kind, LocalDate date, double amount, String category, int sign) {
+        if (!enabled) {
+            return;
+        }
+        int day = date != null ? (int) date.toEpochDay() : LedgerColumns.UNDATED;
+        long cents = Math.round(amount * 100) * sign;
+        String key = MonthlyRollupService.categoryKey(category);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Already committed with nothing to order it against a concurrent load, so reload instead
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                started = true;
+                beginCommit(userId);
+            }
+
+            @Override
+            public void afterCommit() {
+                append(userId, kind, day, cents, key, sign);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started) {
+                    endCommit(userId);
+                }
+            }
+        });
+    }
+
+    // Drops the user's columns; they are reloaded on the next read
+    public synchronized void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.stale = true;
+        }
+        LedgerColumns removed = entries.remove(userId);
+        if (removed != null) {
+            bytes -= removed.estimatedBytes();
+        }
+    }
+
+    private synchronized void beginCommit(Long userId) {
+        committing.merge(userId, 1, Integer::sum);
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    private synchronized void endCommit(Long userId) {
+        committing.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void append(Long userId, LedgerKind kind, int day, long cents, String category, int sign) {
+        LedgerColumns columns;
+        synchronized (this) {
+            columns = entries.get(userId);
+        }
+        if (columns == null) {
+            return;
+        }
+        long before = columns.estimatedBytes();
+        if (!columns.append(kind, day, cents, category, sign)) {
+            invalidate(userId);
+            return;
+        }
+        long growth = columns.estimatedBytes() - before;
+        if (growth > 0) {
+            synchronized (this) {
+                if (entries.get(userId) == columns) {
+                    bytes += growth;
+                    evictOverBudget(userId);
+                }
+            }
+        }
+    }
+
+    // Evicts least recently used users, never the one just touched
+    private void evictOverBudget(Long keep) {
+        Iterator<Map.Entry<Long, LedgerColumns>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Long, LedgerColumns> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            bytes -= eldest.getValue().estimatedBytes();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private LedgerColumns read(Long userId) {
+        long start = System.nanoTime();
+        LedgerColumns columns = new LedgerColumns();
+        boolean[] complete = {true};
+        jdbcTemplate.query("select e.date, e.amount, c.name from expense e left join category c on c.id = e.category_id " +
+                "where e.user_id = ?", rs -> {
+            complete[0] &= add(columns, LedgerKind.EXPENSE, rs.getDate(1), rs.getDouble(2), rs.getString(3));
+        }, userId);
+        jdbcTemplate.query("select i.date, i.amount, c.name from income i left join category c on c.id = i.source_id " +
+                "where i.user_id = ?", rs -> {
+            complete[0] &= add(columns, LedgerKind.INCOME, rs.getDate(1), rs.getDouble(2), rs.getString(3));
+        }, userId);
+        if (!complete[0]) {
+            log.warn("Not caching the ledger of user {}: too many distinct categories", userId);
+            return null;
+        }
+        log.debug("Loaded columnar ledger of user {} ({} bytes) in {} ms", userId, columns.estimatedBytes(),
+                (System.nanoTime() - start) / 1_000_000);
+        return columns;
+    }
+
+    private static boolean add(LedgerColumns columns, LedgerKind kind, Date date, double amount, String category) {
+        int day = date != null ? (int) date.toLocalDate().toEpochDay() : LedgerColumns.UNDATED;
+        return columns.append(kind, day, Math.round(amount * 100), MonthlyRollupService.categoryKey(category), 1);
+    }
+
+    private synchronized long bytes() {
+        return bytes;
+    }
+
+    private synchronized int users() {
+        return entries.size();
+    }
+
+    private static final class Load {
+        volatile boolean stale;
+        private LedgerColumns result;
+        private boolean done;
+
+        synchronized void complete(LedgerColumns columns) {
+            result = columns;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized LedgerColumns await() {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.finance.service;
+
+import com.finance.model.LedgerKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One user's expenses and income as parallel primitive columns: epoch day, amount in cents, category id and
+// entry count delta. Writes only append; an update or delete appends a row that negates the old one (count -1),
+// exactly like the monthly rollups. Scans are plain loops over the arrays and allocate nothing.
+public final class LedgerColumns {
+    public static final int UNDATED = Integer.MIN_VALUE;
+    private static final int ROW_BYTES = 4 + 8 + 2 + 1;
+    private static final int CATEGORY_BYTES = 64;
+
+    private final Segment expenses = new Segment();
+    private final Segment income = new Segment();
+    private final Map<String, Short> categoryIds = new HashMap<>();
+    private final List<String> categories = new ArrayList<>();
+
+    // false when the category dictionary is full; the caller drops this copy and falls back to the database
+    public synchronized boolean append(LedgerKind kind, int epochDay, long cents, String category, int count) {
+        Short id = categoryIds.get(category);
+        if (id == null) {
+            if (categories.size() > Short.MAX_VALUE) {
+                return false;
+            }
+            id = (short) categories.size();
+            categoryIds.put(category, id);
+            categories.add(category);
+        }
+        segment(kind).append(epochDay, cents, id, (byte) count);
+        return true;
+    }
+
+    public synchronized long totalCents(LedgerKind kind) {
+        return segment(kind).totalCents;
+    }
+
+    public synchronized long entryCount(LedgerKind kind) {
+        return segment(kind).totalCount;
+    }
+
+    // Sums rows dated in [monthStarts[0], end) per month and category, where a row's month is the last month start
+    // <= its day. The categories are captured under the same lock, so cells and names always line up.
+    public synchronized Aggregate aggregate(LedgerKind kind, int[] monthStarts, int end) {
+        Segment segment = segment(kind);
+        int width = categories.size();
+        int first = monthStarts[0];
+        int months = monthStarts.length;
+        long[] cents = new long[months * width];
+        int[] counts = new int[months * width];
+        for (int row = 0; row < segment.size; row++) {
+            int day = segment.day[row];
+            if (day < first || day >= end) {
+                continue;
+            }
+            int month = 0;
+            while (month + 1 < months && day >= monthStarts[month + 1]) {
+                month++;
+            }
+            int cell = month * width + segment.category[row];
+            cents[cell] += segment.cents[row];
+            counts[cell] += segment.count[row];
+        }
+        return new Aggregate(categories.toArray(new String[0]), months, cents, counts);
+    }
+
+    public synchronized long estimatedBytes() {
+        return (long) (expenses.day.length + income.day.length) * ROW_BYTES + (long) categories.size() * CATEGORY_BYTES;
+    }
+
+    // Cell (month, category) is at month * categories.length + category
+    public static final class Aggregate {
+        private final String[] categories;
+        private final int months;
+        private final long[] cents;
+        private final int[] counts;
+
+        private Aggregate(String[] categories, int months, long[] cents, int[] counts) {
+            this.categories = categories;
+            this.months = months;
+            this.cents = cents;
+            this.counts = counts;
+        }
+
+        public int months() { return months; }
+        public int categories() { return categories.length; }
+        public String category(int id) { return categories[id]; }
+        public long cents(int month, int category) { return cents[month * categories.length + category]; }
+        public int count(int month, int category) { return counts[month * categories.length + category]; }
+    }
+
+    private Segment segment(LedgerKind kind) {
+        return kind == LedgerKind.EXPENSE ? expenses : income;
+    }
+
+    private static final class Segment {
+        int[] day = new int[16];
+        long[] cents = new long[16];
+        short[] category = new short[16];
+        byte[] count = new byte[16];
+        int size;
+        long totalCents;
+        long totalCount;
+
+        void append(int epochDay, long amountCents, short categoryId, byte countDelta) {
+            if (size == day.length) {
+                int capacity = size * 2;
+                day = Arrays.copyOf(day, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                category = Arrays.copyOf(category, capacity);
+                count = Arrays.copyOf(count, capacity);
+            }
+            day[size] = epochDay;
+            cents[size] = amountCents;
+            category[size] = categoryId;
+            count[size] = countDelta;
+            size++;
+            totalCents += amountCents;
+            totalCount += countDelta;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.finance.service;
+
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import com.finance.model.LedgerKind;
+import com.finance.repository.MonthlyRollupRepository;
+import com.finance.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+@Service
+public class MonthlyRollupService {
+    private final MonthlyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerCache ledgerCache;
+
+    public MonthlyRollupService(MonthlyRollupRepository rollupRepository, UserRepository userRepository,
+                                PlatformTransactionManager transactionManager, LedgerCache ledgerCache) {
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.ledgerCache = ledgerCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // sign is +1 when an entry is added and -1 when it is removed; updates are a removal followed by an add
+    @Transactional
+    public void recordExpense(Expense expense, int sign) {
+        add(expense.getUser().getId(), LedgerKind.EXPENSE, expense.getDate(), expense.getCategory(),
+                sign * expense.getAmount(), sign);
+        ledgerCache.record(expense.getUser().getId(), LedgerKind.EXPENSE, expense.getDate(), expense.getAmount(),
+                expense.getCategory(), sign);
+    }
+
+    @Transactional
+    public void recordIncome(Income income, int sign) {
+        add(income.getUser().getId(), LedgerKind.INCOME, income.getDate(), income.getSource(),
+                sign * income.getAmount(), sign);
+        ledgerCache.record(income.getUser().getId(), LedgerKind.INCOME, income.getDate(), income.getAmount(),
+                income.getSource(), sign);
+    }
+
+    @Transactional
+    public void add(Long userId, LedgerKind kind, LocalDate date, String category, double amount, long count) {
+        add(userId, kind, periodOf(date), category, amount, count);
+    }
+
+    @Transactional
+    public void add(Long userId, LedgerKind kind, int period, String category, double amount, long count) {
+        rollupRepository.addToRollup(userId, kind.name(), period, categoryKey(category), amount, count);
+    }
+
+    @Transactional
+    public void rebuild(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.rebuildExpenses(userId);
+        rollupRepository.rebuildIncomes(userId);
+        ledgerCache.invalidate(userId);
+    }
+
+    // Regenerates every user's rollups from raw rows, one transaction per user
+    public int rebuildAll() {
+        int users = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+            users++;
+        }
+        return users;
+    }
+
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+
+    public static int periodOf(LocalDate date) {
+        return date == null ? 0 : date.getYear() * 100 + date.getMonthValue();
+    }
+
+    public static String categoryKey(String category) {
+        return category == null ? "" : category;
+    }
+}
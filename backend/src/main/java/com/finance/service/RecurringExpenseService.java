@@ -1,37 +1,196 @@
 package com.finance.service;
 
 import com.finance.model.Expense;
-import com.finance.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RecurringExpenseService {
-    private final ExpenseRepository expenseRepository;
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseService.class);
 
-    public RecurringExpenseService(ExpenseRepository expenseRepository) {
-        this.expenseRepository = expenseRepository;
+    // Copies every recurring expense of the chunk's users into the month, skipping copies that already
+    // exist, and adds the copies to the monthly rollups in the same statement. Ids follow Hibernate's pooled
+    // optimizer contract for expense_seq: each nextval v reserves the :block ids v - :block + 1 .. v, so the
+    // statement draws one value per :block copies rather than one per row.
+    private static final String COPY_CHUNK_SQL =
+            "with candidates as (" +
+            "  select e.id, e.category_id, e.amount, e.description, e.user_id," +
+            "  row_number() over (order by e.id) - 1 as n" +
+            "  from expense e" +
+            "  where e.recurring = true and e.user_id in (:userIds) and (e.date is null or e.date < :month)" +
+            "  and not exists (select 1 from expense c where c.recurring_source_id = e.id and c.date = :month)" +
+            "), blocks as (" +
+            "  select b, nextval('expense_seq') as hi" +
+            "  from generate_series(0, cast(ceil((select count(*) from candidates) / cast(:block as numeric)) as integer) - 1) b" +
+            "), inserted as (" +
+            "  insert into expense (id, category_id, amount, description, date, recurring, user_id, recurring_source_id)" +
+            "  select k.hi - :block + 1 + s.n % :block, s.category_id, s.amount, s.description, :month, false, s.user_id, s.id" +
+            "  from candidates s join blocks k on k.b = s.n / :block" +
+            "  on conflict (recurring_source_id, date) do nothing" +
+            "  returning user_id, category_id, amount" +
+            "), rolled as (" +
+            "  insert into monthly_rollup (user_id, kind, period, category, total, entry_count)" +
+            "  select i.user_id, 'EXPENSE', :period, coalesce(c.name, ''), sum(i.amount), count(*)" +
+            "  from inserted i left join category c on c.id = i.category_id" +
+            "  group by i.user_id, coalesce(c.name, '')" +
+            "  on conflict (user_id, kind, period, category) do update set" +
+            "  total = monthly_rollup.total + excluded.total," +
+            "  entry_count = monthly_rollup.entry_count + excluded.entry_count" +
+            ") select count(*) from inserted";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ChangeVersionService versions;
+    private final TransactionTemplate transactionTemplate;
+    private final int usersPerChunk;
+    private final int parallelism;
+    private final Timer runTimer;
+    private final Counter rowsCounter;
+    private final Counter usersCounter;
+    private final Counter chunksDoneCounter;
+    private final Counter chunksFailedCounter;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong chunksTotal = new AtomicLong();
+    private final AtomicLong chunksDone = new AtomicLong();
+    private final AtomicLong chunksFailed = new AtomicLong();
+    private final AtomicLong usersProcessed = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+
+    public RecurringExpenseService(NamedParameterJdbcTemplate jdbcTemplate, ChangeVersionService versions,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meters,
+                                   @Value("${finance.recurring.users-per-chunk:500}") int usersPerChunk,
+                                   @Value("${finance.recurring.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = versions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.usersPerChunk = usersPerChunk;
+        this.parallelism = parallelism;
+        this.runTimer = Timer.builder("recurring.expense.job").description("Recurring expense job run duration")
+                .register(meters);
+        this.rowsCounter = Counter.builder("recurring.expense.rows.inserted").description("Recurring expense copies inserted")
+                .register(meters);
+        this.usersCounter = Counter.builder("recurring.expense.users.processed")
+                .description("Users processed by the recurring expense job").register(meters);
+        this.chunksDoneCounter = Counter.builder("recurring.expense.chunks").description("Recurring expense job chunks")
+                .tag("outcome", "done").register(meters);
+        this.chunksFailedCounter = Counter.builder("recurring.expense.chunks").description("Recurring expense job chunks")
+                .tag("outcome", "failed").register(meters);
+        Gauge.builder("recurring.expense.job.running", running, value -> value.get() ? 1 : 0)
+                .description("1 while the recurring expense job runs").register(meters);
+        // Progress of the current (or last) run; global, so it is exposed on the metrics endpoint only
+        chunkGauge(meters, chunksTotal, "total");
+        chunkGauge(meters, chunksDone, "done");
+        chunkGauge(meters, chunksFailed, "failed");
+    }
+
+    private static void chunkGauge(MeterRegistry meters, AtomicLong chunks, String state) {
+        Gauge.builder("recurring.expense.job.chunks", chunks, AtomicLong::get)
+                .description("Chunks of the current or last run").tag("state", state).register(meters);
     }
 
-    // Run at 1:00 AM on the 1st of every month
-    @Scheduled(cron = "0 0 1 1 * *")
-    @Transactional
+    // Runs daily at 1:00 AM; copies are keyed by (source, month), so re-runs only fill in what a crashed
+    // or missed run left out
+    @Scheduled(cron = "${finance.recurring.cron:0 0 1 * * *}")
     public void duplicateRecurringExpenses() {
-        List<Expense> recurringExpenses = expenseRepository.findByRecurringTrue();
-        for (Expense original : recurringExpenses) {
-            Expense copy = new Expense();
-            copy.setCategory(original.getCategory());
-            copy.setAmount(original.getAmount());
-            copy.setDescription(original.getDescription());
-            copy.setRecurring(true);
-            copy.setUser(original.getUser());
-            // Set date to now (or add a date field if needed)
-            // If you have a date field, set it to the first of the month
-            // copy.setDate(new Date());
-            expenseRepository.save(copy);
+        duplicateRecurringExpenses(LocalDate.now().withDayOfMonth(1));
+    }
+
+    public void duplicateRecurringExpenses(LocalDate month) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Recurring expense job already running, skipping");
+            return;
+        }
+        try {
+            run(month);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void run(LocalDate month) {
+        long start = System.nanoTime();
+        chunksDone.set(0);
+        chunksFailed.set(0);
+        usersProcessed.set(0);
+        rowsInserted.set(0);
+
+        List<Long> userIds = jdbcTemplate.getJdbcTemplate().queryForList(
+                "select distinct user_id from expense where recurring = true and user_id is not null order by user_id",
+                Long.class);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i += usersPerChunk) {
+            chunks.add(userIds.subList(i, Math.min(i + usersPerChunk, userIds.size())));
+        }
+        chunksTotal.set(chunks.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Long> chunk : chunks) {
+                futures.add(executor.submit(() -> copyChunk(month, chunk)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Recurring expense job failed", e);
+        } finally {
+            executor.shutdown();
+            long elapsed = System.nanoTime() - start;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Recurring expenses for {}: {} rows for {} users in {} chunks ({} failed), {} ms",
+                    month, rowsInserted.get(), usersProcessed.get(), chunksDone.get(), chunksFailed.get(), elapsed / 1_000_000);
+        }
+    }
+
+    private void copyChunk(LocalDate month, List<Long> userIds) {
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("month", month)
+                    .addValue("period", MonthlyRollupService.periodOf(month))
+                    .addValue("userIds", userIds)
+                    .addValue("block", Expense.ID_BLOCK_SIZE);
+            Long inserted = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject(COPY_CHUNK_SQL, params, Long.class));
+            if (inserted != null && inserted > 0) {
+                rowsInserted.addAndGet(inserted);
+                rowsCounter.increment(inserted);
+                for (Long userId : userIds) {
+                    versions.changed(userId, DataCollection.EXPENSES);
+                }
+            }
+            usersProcessed.addAndGet(userIds.size());
+            usersCounter.increment(userIds.size());
+            chunksDone.incrementAndGet();
+            chunksDoneCounter.increment();
+        } catch (RuntimeException e) {
+            // The chunk rolled back on its own; the next run picks it up again
+            chunksFailed.incrementAndGet();
+            chunksFailedCounter.increment();
+            log.error("Recurring expense chunk of {} users failed", userIds.size(), e);
         }
     }
 }
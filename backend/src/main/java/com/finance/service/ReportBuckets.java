@@ -0,0 +1,62 @@
+package com.finance.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Accumulates amounts into per-month and per-category primitive totals for one year.
+public final class ReportBuckets {
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    private final double[] monthly = new double[12];
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+    private String[] categories = new String[16];
+    private double[] categoryTotals = new double[16];
+    private int categoryCount;
+    private double total;
+
+    public void add(int month, String category, double amount) {
+        monthly[month - 1] += amount;
+        categoryTotals[indexOf(category != null ? category : UNCATEGORIZED)] += amount;
+        total += amount;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getMonthTotal(int month) {
+        return monthly[month - 1];
+    }
+
+    public Map<Integer, Double> monthlyTotals() {
+        Map<Integer, Double> result = new LinkedHashMap<>();
+        for (int month = 1; month <= 12; month++) {
+            result.put(month, monthly[month - 1]);
+        }
+        return result;
+    }
+
+    public Map<String, Double> categoryTotals() {
+        Map<String, Double> result = new HashMap<>();
+        for (int i = 0; i < categoryCount; i++) {
+            result.put(categories[i], categoryTotals[i]);
+        }
+        return result;
+    }
+
+    private int indexOf(String category) {
+        Integer index = categoryIndex.get(category);
+        if (index != null) {
+            return index;
+        }
+        if (categoryCount == categories.length) {
+            categories = Arrays.copyOf(categories, categoryCount * 2);
+            categoryTotals = Arrays.copyOf(categoryTotals, categoryCount * 2);
+        }
+        categories[categoryCount] = category;
+        categoryIndex.put(category, categoryCount);
+        return categoryCount++;
+    }
+}
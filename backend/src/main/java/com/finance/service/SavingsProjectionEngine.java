@@ -0,0 +1,82 @@
+package com.finance.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Bootstrap Monte Carlo of a savings pool: every simulated month draws one historical month of net savings
+// (income minus expenses) at random. Goals are funded in order, so goal k is reached the first month the pool
+// covers the remaining amounts of goals 0..k. Each path only keeps its pool and the next goal to reach.
+public final class SavingsProjectionEngine {
+    public static final int NOT_REACHED = Integer.MAX_VALUE;
+
+    private final double[] monthlyNet;
+    private final double[] threshold;
+    private final int horizon;
+
+    // remaining holds the amounts still missing per goal, already in funding order
+    public SavingsProjectionEngine(double[] monthlyNet, double[] remaining, int horizonMonths) {
+        this.monthlyNet = monthlyNet.clone();
+        this.threshold = new double[remaining.length];
+        double cumulative = 0;
+        for (int g = 0; g < remaining.length; g++) {
+            cumulative += Math.max(0, remaining[g]);
+            threshold[g] = cumulative;
+        }
+        this.horizon = horizonMonths;
+    }
+
+    public int goalCount() {
+        return threshold.length;
+    }
+
+    // Simulates paths [from, to) into hitMonth, laid out goal-major (hitMonth[g * paths + path]) so each goal's
+    // column can be sorted in place afterwards. Chunks write disjoint cells and share nothing else.
+    public void simulate(SplittableRandom random, int from, int to, int paths, int[] hitMonth) {
+        int goals = threshold.length;
+        int samples = monthlyNet.length;
+        for (int path = from; path < to; path++) {
+            double pool = 0;
+            int next = 0;
+            while (next < goals && threshold[next] <= 0) {
+                hitMonth[next++ * paths + path] = 0;
+            }
+            for (int month = 1; month <= horizon && next < goals; month++) {
+                pool += monthlyNet[random.nextInt(samples)];
+                while (next < goals && pool >= threshold[next]) {
+                    hitMonth[next++ * paths + path] = month;
+                }
+            }
+            while (next < goals) {
+                hitMonth[next++ * paths + path] = NOT_REACHED;
+            }
+        }
+    }
+
+    // Sorts each goal's column; afterwards percentile() and reachedBy() read it directly
+    public static void sortColumns(int[] hitMonth, int goals, int paths) {
+        for (int g = 0; g < goals; g++) {
+            Arrays.sort(hitMonth, g * paths, (g + 1) * paths);
+        }
+    }
+
+    // Nearest-rank percentile of a sorted column; NOT_REACHED when fewer than that share of paths finish
+    public static int percentile(int[] hitMonth, int goal, int paths, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * paths);
+        return hitMonth[goal * paths + Math.max(0, Math.min(paths - 1, rank - 1))];
+    }
+
+    // Share of paths that reach the goal within the given month on a sorted column
+    public static double reachedBy(int[] hitMonth, int goal, int paths, int month) {
+        int low = goal * paths;
+        int high = low + paths;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hitMonth[mid] <= month) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (double) (low - goal * paths) / paths;
+    }
+}
@@ -0,0 +1,223 @@
+package com.finance.service;
+
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.model.SavingsGoal;
+import com.finance.repository.MonthlyRollupRepository;
+import com.finance.repository.SavingsGoalRepository;
+import com.finance.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+@Service
+public class SavingsProjectionService {
+    private static final double[] PERCENTILES = {10, 50, 90};
+
+    private final SavingsGoalRepository goalRepository;
+    private final MonthlyRollupRepository rollupRepository;
+    private final ChangeVersionService versions;
+    private final ForkJoinPool pool;
+    private final int defaultPaths;
+    private final int maxPaths;
+    private final int historyMonths;
+    private final int minHistoryMonths;
+    private final int horizonMonths;
+    // Keyed by user; an entry is only served while its stamp (data versions, month, path count) still matches
+    private final ExpiringCache<Long, Projection> cache;
+
+    public SavingsProjectionService(SavingsGoalRepository goalRepository, MonthlyRollupRepository rollupRepository,
+                                    ChangeVersionService versions, @Qualifier("simulationPool") ForkJoinPool pool,
+                                    @Value("${finance.projection.paths:20000}") int defaultPaths,
+                                    @Value("${finance.projection.max-paths:100000}") int maxPaths,
+                                    @Value("${finance.projection.history-months:24}") int historyMonths,
+                                    @Value("${finance.projection.min-history-months:3}") int minHistoryMonths,
+                                    @Value("${finance.projection.horizon-months:360}") int horizonMonths,
+                                    @Value("${finance.projection.cache.max-size:10000}") int cacheSize,
+                                    @Value("${finance.projection.cache.ttl-ms:3600000}") long cacheTtlMs) {
+        this.goalRepository = goalRepository;
+        this.rollupRepository = rollupRepository;
+        this.versions = versions;
+        this.pool = pool;
+        this.defaultPaths = defaultPaths;
+        this.maxPaths = maxPaths;
+        this.historyMonths = historyMonths;
+        this.minHistoryMonths = minHistoryMonths;
+        this.horizonMonths = horizonMonths;
+        this.cache = new ExpiringCache<>(cacheSize, cacheTtlMs);
+    }
+
+    // Probability of reaching each open goal by its target date plus percentile completion months, from
+    // bootstrapped monthly net savings. Open goals are funded in target date order.
+    public Map<String, Object> project(Long userId, Integer requestedPaths) {
+        int paths = requestedPaths != null ? requestedPaths : defaultPaths;
+        if (paths < 1 || paths > maxPaths) {
+            throw new IllegalArgumentException("paths must be between 1 and " + maxPaths);
+        }
+        YearMonth start = YearMonth.now();
+        String stamp = versions.version(userId, DataCollection.EXPENSES) + "-"
+                + versions.version(userId, DataCollection.INCOME) + "-"
+                + versions.version(userId, DataCollection.SAVINGS_GOALS) + "-" + start + "-" + paths;
+        Projection cached = cache.get(userId);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.result;
+        }
+        Map<String, Object> result = compute(userId, paths, start);
+        cache.put(userId, new Projection(stamp, result));
+        return result;
+    }
+
+    private Map<String, Object> compute(Long userId, int paths, YearMonth start) {
+        long began = System.nanoTime();
+        double[] history = monthlyNetHistory(userId, start);
+        List<SavingsGoal> open = new ArrayList<>();
+        for (SavingsGoal goal : goalRepository.findByUserId(userId)) {
+            if (!goal.isCompleted()) {
+                open.add(goal);
+            }
+        }
+        open.sort(Comparator.comparing(SavingsGoal::getTargetDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(SavingsGoal::getId));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("paths", paths);
+        response.put("historyMonths", history.length);
+        response.put("averageMonthlyNet", round(average(history)));
+        if (history.length < minHistoryMonths) {
+            response.put("insufficientHistory", true);
+            response.put("goals", describe(open, null, paths, start));
+            return response;
+        }
+
+        double[] remaining = new double[open.size()];
+        for (int g = 0; g < remaining.length; g++) {
+            remaining[g] = open.get(g).getTargetAmount() - open.get(g).getCurrentAmount();
+        }
+        SavingsProjectionEngine engine = new SavingsProjectionEngine(history, remaining, horizonMonths);
+        int[] hitMonth = new int[open.size() * paths];
+        if (!open.isEmpty()) {
+            run(engine, paths, hitMonth);
+            SavingsProjectionEngine.sortColumns(hitMonth, open.size(), paths);
+        }
+
+        response.put("insufficientHistory", false);
+        response.put("goals", describe(open, hitMonth, paths, start));
+        response.put("elapsedMs", (System.nanoTime() - began) / 1_000_000.0);
+        return response;
+    }
+
+    // Splits the paths into a few chunks per worker, each with its own RNG split off the root on this thread
+    private void run(SavingsProjectionEngine engine, int paths, int[] hitMonth) {
+        int chunks = Math.min(paths, pool.getParallelism() * 4);
+        SplittableRandom root = new SplittableRandom();
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) paths * c / chunks);
+            int to = (int) ((long) paths * (c + 1) / chunks);
+            SplittableRandom random = root.split();
+            tasks.add(() -> {
+                engine.simulate(random, from, to, paths, hitMonth);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Savings projection interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Savings projection failed", e.getCause());
+        }
+    }
+
+    // Income minus expenses for each full month from the first month with data (within the window) to last
+    // month; months without entries in between count as zero net savings
+    private double[] monthlyNetHistory(Long userId, YearMonth start) {
+        YearMonth to = start.minusMonths(1);
+        YearMonth from = start.minusMonths(historyMonths);
+        double[] net = new double[historyMonths];
+        int first = historyMonths;
+        for (MonthlyRollup row : rollupRepository.findByUserIdAndPeriodBetween(userId, period(from), period(to))) {
+            int index = (int) ChronoUnit.MONTHS.between(from, YearMonth.of(row.getPeriod() / 100, row.getPeriod() % 100));
+            if (index < 0 || index >= historyMonths) {
+                continue;
+            }
+            net[index] += row.getKind() == LedgerKind.INCOME ? row.getTotal() : -row.getTotal();
+            first = Math.min(first, index);
+        }
+        double[] history = new double[historyMonths - first];
+        System.arraycopy(net, first, history, 0, history.length);
+        return history;
+    }
+
+    private List<Map<String, Object>> describe(List<SavingsGoal> goals, int[] hitMonth, int paths, YearMonth start) {
+        List<Map<String, Object>> described = new ArrayList<>();
+        for (int g = 0; g < goals.size(); g++) {
+            SavingsGoal goal = goals.get(g);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", goal.getId());
+            entry.put("name", goal.getName());
+            entry.put("targetAmount", goal.getTargetAmount());
+            entry.put("currentAmount", goal.getCurrentAmount());
+            entry.put("targetDate", goal.getTargetDate());
+            entry.put("fundingOrder", g + 1);
+            if (hitMonth != null) {
+                if (goal.getTargetDate() != null) {
+                    int deadline = (int) ChronoUnit.MONTHS.between(start, YearMonth.from(goal.getTargetDate()));
+                    double probability = SavingsProjectionEngine.reachedBy(hitMonth, g, paths, deadline);
+                    entry.put("probability", Math.round(probability * 10000) / 10000.0);
+                } else {
+                    entry.put("probability", null);
+                }
+                for (double percent : PERCENTILES) {
+                    int month = SavingsProjectionEngine.percentile(hitMonth, g, paths, percent);
+                    entry.put("p" + (int) percent + "Date",
+                            month != SavingsProjectionEngine.NOT_REACHED ? start.plusMonths(month).toString() : null);
+                }
+            }
+            described.add(entry);
+        }
+        return described;
+    }
+
+    private static int period(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static double average(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return values.length > 0 ? sum / values.length : 0;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static final class Projection {
+        final String stamp;
+        final Map<String, Object> result;
+
+        Projection(String stamp, Map<String, Object> result) {
+            this.stamp = stamp;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.finance.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Ranked, typo-tolerant search over the text a user types into the ledger: expense and income descriptions,
+// debt names and bill names. Matching is pg_trgm word similarity (the <% operator), answered from the
+// (user_id, text) trigram indexes created by SchemaMigrations.
+@Service
+public class SearchService {
+    private static final String SEARCH_SQL =
+            "select type, id, text, amount, date, score from (" +
+            "  select 'EXPENSE' as type, id, description as text, amount, date, word_similarity(:q, description) as score" +
+            "  from expense where user_id = :userId and :q <% description" +
+            "  union all" +
+            "  select 'INCOME', id, description, amount, date, word_similarity(:q, description)" +
+            "  from income where user_id = :userId and :q <% description" +
+            "  union all" +
+            "  select 'DEBT', id, name, remaining_amount, target_payoff_date, word_similarity(:q, name)" +
+            "  from debt where user_id = :userId and :q <% name" +
+            "  union all" +
+            "  select 'BILL', id, bill_name, amount, due_date, word_similarity(:q, bill_name)" +
+            "  from bill_reminder where user_id = :userId and :q <% bill_name" +
+            ") hits order by score desc, date desc nulls last, type, id desc limit :limit offset :offset";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final double threshold;
+    private final Timer searchTimer;
+
+    public SearchService(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meters,
+                         @Value("${finance.search.similarity-threshold:0.5}") double threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.threshold = threshold;
+        this.searchTimer = Timer.builder("search").description("Ledger search duration").register(meters);
+    }
+
+    // One page of hits, best first; fetches one extra row to tell whether there is a next page
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(Long userId, String query, int page, int size) {
+        long start = System.nanoTime();
+        String q = query.trim();
+        // Transaction-local, so pooled connections keep the server default
+        jdbcTemplate.getJdbcTemplate().queryForObject("select set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, Double.toString(threshold));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("q", q)
+                .addValue("limit", size + 1)
+                .addValue("offset", (long) page * size);
+        List<Map<String, Object>> results = new ArrayList<>();
+        jdbcTemplate.query(SEARCH_SQL, params, rs -> {
+            Map<String, Object> hit = new LinkedHashMap<>();
+            hit.put("type", rs.getString("type"));
+            hit.put("id", rs.getLong("id"));
+            hit.put("text", rs.getString("text"));
+            hit.put("amount", rs.getDouble("amount"));
+            Date date = rs.getDate("date");
+            hit.put("date", date != null ? date.toLocalDate() : null);
+            hit.put("score", rs.getDouble("score"));
+            results.add(hit);
+        });
+        boolean hasMore = results.size() > size;
+        if (hasMore) {
+            results.remove(size);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", q);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("hasMore", hasMore);
+        response.put("results", results);
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+}
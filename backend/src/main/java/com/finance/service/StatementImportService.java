@@ -0,0 +1,314 @@
+package com.finance.service;
+
+import com.finance.model.Categorized;
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import com.finance.model.LedgerKind;
+import com.finance.model.User;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Imports bank statements (CSV or OFX) line by line. Negative amounts become expenses and positive amounts
+// incomes; at most one chunk of parsed rows is held in memory and each chunk commits in its own transaction.
+@Service
+public class StatementImportService {
+    public enum Format { CSV, OFX }
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String DEFAULT_CATEGORY = "Imported";
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final EntityManager entityManager;
+    private final MonthlyRollupService rollupService;
+    private final ChangeVersionService versions;
+    private final CategoryDictionary categories;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public StatementImportService(EntityManager entityManager, MonthlyRollupService rollupService,
+                                  ChangeVersionService versions, CategoryDictionary categories,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${finance.import.chunk-size:5000}") int chunkSize,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.rollupService = rollupService;
+        this.versions = versions;
+        this.categories = categories;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public Map<String, Object> importStatement(Long userId, Format format, InputStream in) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readOfx(reader, run);
+        }
+        run.flushChunk();
+        return run.result();
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = splitCsv(headerLine);
+        int dateColumn = -1;
+        int amountColumn = -1;
+        int descriptionColumn = -1;
+        int categoryColumn = -1;
+        for (int i = 0; i < header.size(); i++) {
+            switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "date":
+                    dateColumn = i;
+                    break;
+                case "amount":
+                    amountColumn = i;
+                    break;
+                case "description":
+                case "memo":
+                    descriptionColumn = i;
+                    break;
+                case "category":
+                case "source":
+                    categoryColumn = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (dateColumn < 0 || amountColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain date and amount columns");
+        }
+
+        int lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                List<String> fields = splitCsv(line);
+                run.add(LocalDate.parse(fields.get(dateColumn).trim()),
+                        Double.parseDouble(fields.get(amountColumn).trim()),
+                        field(fields, descriptionColumn),
+                        field(fields, categoryColumn));
+            } catch (RuntimeException e) {
+                run.error(lineNumber, e);
+            }
+        }
+    }
+
+    private void readOfx(BufferedReader reader, ImportRun run) throws IOException {
+        int lineNumber = 0;
+        int transactionLine = 0;
+        String posted = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+        boolean inTransaction = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String tag = line.trim();
+            if (tag.startsWith("<STMTTRN>")) {
+                inTransaction = true;
+                transactionLine = lineNumber;
+                posted = amount = name = memo = null;
+            } else if (tag.startsWith("</STMTTRN>") && inTransaction) {
+                inTransaction = false;
+                try {
+                    run.add(LocalDate.parse(posted.substring(0, 8), OFX_DATE), Double.parseDouble(amount),
+                            name != null ? name : memo, null);
+                } catch (RuntimeException e) {
+                    run.error(transactionLine, e);
+                }
+            } else if (inTransaction) {
+                if (tag.startsWith("<DTPOSTED>")) {
+                    posted = ofxValue(tag);
+                } else if (tag.startsWith("<TRNAMT>")) {
+                    amount = ofxValue(tag);
+                } else if (tag.startsWith("<NAME>")) {
+                    name = ofxValue(tag);
+                } else if (tag.startsWith("<MEMO>")) {
+                    memo = ofxValue(tag);
+                }
+            }
+        }
+    }
+
+    private static String ofxValue(String tag) {
+        String value = tag.substring(tag.indexOf('>') + 1);
+        int close = value.indexOf('<');
+        return (close >= 0 ? value.substring(0, close) : value).trim();
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // State of one import: the pending chunk, rollup deltas for that chunk and running counters
+    private class ImportRun {
+        private final Long userId;
+        private final long startNanos = System.nanoTime();
+        private final List<Object> pending = new ArrayList<>();
+        private final Map<String, double[]> rollupDeltas = new HashMap<>();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private long expenses;
+        private long incomes;
+        private long errorCount;
+
+        ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(LocalDate date, double amount, String description, String category) {
+            String name = category != null ? category : DEFAULT_CATEGORY;
+            LedgerKind kind;
+            if (amount < 0) {
+                Expense expense = new Expense();
+                expense.setDate(date);
+                expense.setAmount(-amount);
+                expense.setDescription(description);
+                expense.setCategory(name);
+                pending.add(expense);
+                kind = LedgerKind.EXPENSE;
+            } else {
+                Income income = new Income();
+                income.setDate(date);
+                income.setAmount(amount);
+                income.setDescription(description);
+                income.setSource(name);
+                pending.add(income);
+                kind = LedgerKind.INCOME;
+            }
+            double[] delta = rollupDeltas.computeIfAbsent(
+                    kind.name() + '|' + MonthlyRollupService.periodOf(date) + '|' + name, key -> new double[2]);
+            delta[0] += Math.abs(amount);
+            delta[1]++;
+            if (pending.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        void error(int lineNumber, Exception e) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", lineNumber);
+                error.put("message", String.valueOf(e.getMessage()));
+                errors.add(error);
+            }
+        }
+
+        void flushChunk() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = entityManager.getReference(User.class, userId);
+                for (int i = 0; i < pending.size(); i++) {
+                    Object entity = pending.get(i);
+                    if (entity instanceof Expense) {
+                        ((Expense) entity).setUser(user);
+                    } else {
+                        ((Income) entity).setUser(user);
+                    }
+                    categories.resolve((Categorized) entity);
+                    entityManager.persist(entity);
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        user = entityManager.getReference(User.class, userId);
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                for (Map.Entry<String, double[]> entry : rollupDeltas.entrySet()) {
+                    String[] key = entry.getKey().split("\\|", 3);
+                    rollupService.add(userId, LedgerKind.valueOf(key[0]), Integer.parseInt(key[1]), key[2],
+                            entry.getValue()[0], (long) entry.getValue()[1]);
+                }
+            });
+            for (Object entity : pending) {
+                if (entity instanceof Expense) {
+                    expenses++;
+                } else {
+                    incomes++;
+                }
+            }
+            pending.clear();
+            rollupDeltas.clear();
+            versions.changed(userId, DataCollection.EXPENSES);
+            versions.changed(userId, DataCollection.INCOME);
+        }
+
+        Map<String, Object> result() {
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            long rows = expenses + incomes;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("expensesImported", expenses);
+            result.put("incomesImported", incomes);
+            result.put("errorCount", errorCount);
+            result.put("errors", errors);
+            result.put("elapsedMs", elapsedMs);
+            result.put("rowsPerSecond", elapsedMs > 0 ? rows * 1000 / elapsedMs : rows);
+            return result;
+        }
+    }
+}
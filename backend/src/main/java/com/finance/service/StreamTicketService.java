@@ -0,0 +1,36 @@
+package com.finance.service;
+
+import com.finance.config.AuthenticatedUser;
+import com.finance.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Short-lived, single-use tickets for opening the change stream. EventSource cannot send an Authorization
+// header, and a JWT in the query string would end up in access logs and browser history; a ticket in the URL
+// is worthless once the stream has opened or ttl-ms has passed.
+@Service
+public class StreamTicketService {
+    private final SecureRandom random = new SecureRandom();
+    private final ExpiringCache<String, AuthenticatedUser> tickets;
+
+    public StreamTicketService(@Value("${finance.events.ticket.max-size:10000}") int maxSize,
+                               @Value("${finance.events.ticket.ttl-ms:30000}") long ttlMs) {
+        this.tickets = new ExpiringCache<>(maxSize, ttlMs);
+    }
+
+    public String issue(AuthenticatedUser principal) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, principal);
+        return ticket;
+    }
+
+    // The ticket's user, or null if it is unknown, expired or already used
+    public AuthenticatedUser redeem(String ticket) {
+        return ticket != null ? tickets.take(ticket) : null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.finance.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Thread-safe map with a per-entry time to live and an upper bound on size, backed by Caffeine. Reads and writes
+// are O(1); once full, Caffeine evicts by recency and frequency (W-TinyLFU), so hot keys such as active sessions'
+// tokens stay while cold ones go.
+public class ExpiringCache<K, V> {
+    private final Cache<K, Entry<V>> entries;
+    private final long ttlNanos;
+
+    public ExpiringCache(int maxSize, long ttlMillis) {
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Eviction bookkeeping runs on the caller's thread instead of the common pool
+                .executor(Runnable::run)
+                .expireAfter(new Expiry<K, Entry<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.getIfPresent(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos / 1_000_000);
+    }
+
+    // Stores the value for the smaller of the cache TTL and ttlMillis
+    public void put(K key, V value, long ttlMillis) {
+        long ttl = Math.min(ttlNanos, ttlMillis * 1_000_000);
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, ttl));
+    }
+
+    public void remove(K key) {
+        entries.invalidate(key);
+    }
+
+    // Removes and returns the live value, so of concurrent callers at most one gets it
+    public V take(K key) {
+        Entry<V> entry = entries.asMap().remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long ttlNanos;
+
+        Entry(V value, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.finance.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Counts the SQL statements issued while it is open on the current thread (and on threads it is propagated to),
+// keeping per-statement counts so repeated identical statements (N+1 patterns) can be reported.
+public final class SqlStatementLog implements AutoCloseable {
+    private static final ThreadLocal<SqlStatementLog> CURRENT = new ThreadLocal<>();
+    // Bound on distinct statements tracked, so bulk work cannot grow the map without limit
+    private static final int MAX_DISTINCT = 256;
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final Map<String, AtomicInteger> statements = new ConcurrentHashMap<>();
+    private final SqlStatementLog previous;
+
+    private SqlStatementLog(SqlStatementLog previous) {
+        this.previous = previous;
+    }
+
+    public static SqlStatementLog open() {
+        SqlStatementLog log = new SqlStatementLog(CURRENT.get());
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static SqlStatementLog current() {
+        return CURRENT.get();
+    }
+
+    public static void record(String sql) {
+        SqlStatementLog log = CURRENT.get();
+        if (log != null) {
+            log.add(sql);
+        }
+    }
+
+    // Runs the task with this thread's log (if any) attached, e.g. for work handed to an executor
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        SqlStatementLog log = CURRENT.get();
+        if (log == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementLog outer = CURRENT.get();
+            CURRENT.set(log);
+            try {
+                return task.get();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public int count() {
+        return count.get();
+    }
+
+    // Statements issued at least threshold times, most repeated first
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        statements.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= threshold)
+                .sorted((a, b) -> b.getValue().get() - a.getValue().get())
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue().get()));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    private void add(String sql) {
+        count.incrementAndGet();
+        AtomicInteger perStatement = statements.get(sql);
+        if (perStatement == null && statements.size() < MAX_DISTINCT) {
+            perStatement = statements.computeIfAbsent(sql, key -> new AtomicInteger());
+        }
+        if (perStatement != null) {
+            perStatement.incrementAndGet();
+        }
+        if (previous != null) {
+            previous.add(sql);
+        }
+    }
+}
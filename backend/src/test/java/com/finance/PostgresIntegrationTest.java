@@ -0,0 +1,44 @@
+package com.finance;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Boots the application on a random port against PostgreSQL, since the native SQL is PostgreSQL-specific.
+// An embedded server is started once per test JVM; -Dtest.datasource.url (with test.datasource.username and
+// test.datasource.password) points the tests at an existing server instead.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class PostgresIntegrationTest {
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String configured = System.getProperty("test.datasource.url");
+        String url = configured != null ? configured : embedded().getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> System.getProperty("test.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("test.datasource.password", "postgres"));
+    }
+
+    private static synchronized EmbeddedPostgres embedded() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,48 @@
+package com.finance.config;
+
+import com.finance.util.SqlStatementLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementBudgetFilterTest {
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(meters, 20, 5);
+
+    @Test
+    void labelsMappedRequestsWithTheirPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/expenses/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new OneStatementServlet()));
+
+        assertEquals(1, meters.get("sql.statements").tag("endpoint", "GET /api/expenses/{id}").counter().count());
+    }
+
+    @Test
+    void labelsUnmappedRequestsWithOneFixedValue() throws Exception {
+        for (String uri : new String[] {"/wp-login.php", "/api/nope/1", "/api/nope/2"}) {
+            filter.doFilter(new MockHttpServletRequest("PROPFIND", uri), new MockHttpServletResponse(),
+                    new MockFilterChain(new OneStatementServlet()));
+        }
+
+        assertEquals(3, meters.get("sql.statements").tag("endpoint", SqlStatementBudgetFilter.UNMATCHED).counter().count());
+        assertEquals(1, meters.get("sql.statements").counters().size());
+    }
+
+    // Stands in for a handler that reaches the database, e.g. the token check on an unknown path
+    private static final class OneStatementServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            SqlStatementLog.record("select * from users where id = ?");
+        }
+    }
+}
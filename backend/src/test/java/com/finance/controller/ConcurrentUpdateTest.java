@@ -0,0 +1,144 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Contributions and debt payments are single UPDATE ... RETURNING statements, so concurrent calls on one row
+// must not lose an increment. The throughput comparison with read-modify-write lives in the benchmarks module.
+class ConcurrentUpdateTest extends PostgresIntegrationTest {
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 40;
+
+    @Autowired
+    private TestRestTemplate rest;
+    @LocalServerPort
+    private int port;
+
+    // TestRestTemplate's default request factory cannot send PATCH
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signup() {
+        Map<?, ?> response = rest.postForObject("/api/auth/signup",
+                body("username", "contention-" + System.nanoTime(), "password", "contention-password"), Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+    }
+
+    @Test
+    void concurrentContributionsAreAllCounted() throws Exception {
+        long goalId = create("/api/savings-goals", body("name", "Contended goal", "targetAmount", 1e12, "currentAmount", 0));
+
+        hammer("/api/savings-goals/" + goalId + "/contribute?amount=1");
+
+        assertEquals(THREADS * OPS_PER_THREAD, ((Number) find("/api/savings-goals", goalId).get("currentAmount")).doubleValue());
+    }
+
+    @Test
+    void concurrentPaymentsAreAllCounted() throws Exception {
+        long debtId = create("/api/debts", body("name", "Contended debt", "totalAmount", 1e9, "remainingAmount", 1e9,
+                "interestRate", 0, "minimumPayment", 0));
+
+        hammer("/api/debts/" + debtId + "/payment?amount=1");
+
+        assertEquals(1e9 - THREADS * OPS_PER_THREAD, ((Number) find("/api/debts", debtId).get("remainingAmount")).doubleValue());
+    }
+
+    @Test
+    void putWithStaleVersionIsRejected() {
+        long goalId = create("/api/savings-goals", body("name", "Edited goal", "targetAmount", 100, "currentAmount", 0));
+        Map<String, Object> loaded = find("/api/savings-goals", goalId);
+        patch("/api/savings-goals/" + goalId + "/contribute?amount=5");
+
+        loaded.put("name", "Renamed");
+        assertEquals(HttpStatus.CONFLICT, rest.exchange("/api/savings-goals/" + goalId, HttpMethod.PUT,
+                new HttpEntity<>(loaded, headers), Map.class).getStatusCode());
+    }
+
+    // Runs OPS_PER_THREAD calls on each thread, all released at once
+    private void hammer(String path) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> worker = () -> {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        patch(path);
+                    }
+                    return null;
+                };
+                futures.add(pool.submit(worker));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void patch(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode(), "PATCH " + path);
+        } catch (Exception e) {
+            throw new AssertionError("PATCH " + path + " failed", e);
+        }
+    }
+
+    private long create(String path, Map<String, Object> body) {
+        Map<?, ?> created = rest.postForObject(path, new HttpEntity<>(body, headers), Map.class);
+        return ((Number) created.get("id")).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> find(String path, long id) {
+        List<Map<String, Object>> rows = rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), List.class).getBody();
+        for (Map<String, Object> row : rows) {
+            if (((Number) row.get("id")).longValue() == id) {
+                return row;
+            }
+        }
+        throw new AssertionError("Row " + id + " not found in " + path);
+    }
+
+    private static Map<String, Object> body(Object... pairs) {
+        Map<String, Object> body = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            body.put((String) pairs[i], pairs[i + 1]);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,75 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventControllerTest extends PostgresIntegrationTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void signup() {
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put("username", "events-" + System.nanoTime());
+        credentials.put("password", "events-password");
+        token = (String) rest.postForObject("/api/auth/signup", credentials, Map.class).get("token");
+    }
+
+    @Test
+    void ticketOpensOneStream() throws Exception {
+        String ticket = ticket();
+
+        HttpResponse<InputStream> stream = open("?ticket=" + ticket);
+        try (InputStream body = stream.body()) {
+            assertEquals(200, stream.statusCode());
+            byte[] ping = new byte[6];
+            int read = 0;
+            while (read < ping.length) {
+                read += body.read(ping, read, ping.length - read);
+            }
+            assertEquals(":ping\n", new String(ping, StandardCharsets.UTF_8));
+        }
+
+        assertEquals(401, open("?ticket=" + ticket).statusCode());
+    }
+
+    @Test
+    void jwtInQueryStringIsRejected() throws Exception {
+        assertEquals(401, open("?token=" + token).statusCode());
+    }
+
+    private String ticket() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return (String) rest.postForObject("/api/events/ticket", new HttpEntity<>(headers), Map.class).get("ticket");
+    }
+
+    private HttpResponse<InputStream> open(String query) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events" + query))
+                .header(HttpHeaders.ACCEPT, "text/event-stream")
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+}
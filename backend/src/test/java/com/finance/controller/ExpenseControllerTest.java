@@ -0,0 +1,219 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.repository.MonthlyRollupRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpenseControllerTest extends PostgresIntegrationTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private String username;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signup() {
+        Map<String, Object> credentials = new HashMap<>();
+        username = "expenses-" + System.nanoTime();
+        credentials.put("username", username);
+        credentials.put("password", "expenses-password");
+        Map<?, ?> response = rest.postForObject("/api/auth/signup", credentials, Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+    }
+
+    @Test
+    void cursorWalksEveryExpenseOnceAcrossDateTies() {
+        // Sort order: undated first, then dates descending, ties by id descending
+        Number undated = create(5, "Food", null);
+        Number tieLow = create(1, "Food", "2025-03-10");
+        Number tieHigh = create(2, "Rent", "2025-03-10");
+        Number older = create(3, "Food", "2025-02-01");
+        Number newer = create(4, "Food", "2025-04-01");
+        List<Number> expected = Arrays.asList(undated, newer, tieHigh, tieLow, older);
+
+        List<Number> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<Map[]> page = rest.exchange(
+                    "/api/expenses?limit=2" + (cursor != null ? "&cursor=" + cursor : ""),
+                    HttpMethod.GET, new HttpEntity<>(headers), Map[].class);
+            assertEquals(HttpStatus.OK, page.getStatusCode());
+            for (Map<?, ?> expense : page.getBody()) {
+                seen.add((Number) expense.get("id"));
+            }
+            cursor = page.getHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(longs(expected), longs(seen));
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        create(1, "Food", "2025-03-10");
+        create(2, "Food", "2025-03-11");
+
+        ResponseEntity<Map[]> page = rest.exchange("/api/expenses?limit=2", HttpMethod.GET,
+                new HttpEntity<>(headers), Map[].class);
+
+        assertEquals(2, page.getBody().length);
+        assertNull(page.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, get("/api/expenses?limit=2&cursor=not-a-cursor").getStatusCode());
+    }
+
+    @Test
+    void limitOutsideBoundsIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, get("/api/expenses?limit=501").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, get("/api/expenses?limit=0").getStatusCode());
+    }
+
+    @Test
+    void omittedLimitReturnsDefaultPage() {
+        for (int i = 0; i < 51; i++) {
+            create(1, "Food", "2025-03-10");
+        }
+
+        ResponseEntity<Map[]> page = rest.exchange("/api/expenses", HttpMethod.GET,
+                new HttpEntity<>(headers), Map[].class);
+
+        assertEquals(50, page.getBody().length);
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertNotNull(page.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void summaryCoversEveryMatchingExpense() {
+        create(10, "Food", "2025-03-10");
+        create(20, "Food", "2025-03-20");
+        create(5, "Rent", "2025-03-15");
+        create(40, "Food", "2025-04-02");
+
+        Map<?, ?> summary = rest.exchange("/api/expenses/summary?category=Food", HttpMethod.GET,
+                new HttpEntity<>(headers), Map.class).getBody();
+
+        assertEquals(70.0, ((Number) summary.get("total")).doubleValue());
+        assertEquals(3, ((Number) summary.get("count")).intValue());
+        assertEquals(40.0, ((Number) summary.get("highest")).doubleValue());
+        List<?> cells = (List<?>) summary.get("cells");
+        assertEquals(2, cells.size());
+        Map<?, ?> march = (Map<?, ?>) cells.get(0);
+        assertEquals("2025-03", march.get("month"));
+        assertEquals("Food", march.get("category"));
+        assertEquals(30.0, ((Number) march.get("total")).doubleValue());
+        assertEquals(2, ((Number) march.get("count")).intValue());
+    }
+
+    @Test
+    void updateMovesAmountBetweenRollupCells() {
+        Number id = create(10, "Food", "2025-03-10");
+        Map<String, Object> changed = new HashMap<>();
+        changed.put("amount", 25.0);
+        changed.put("category", "Travel");
+        changed.put("description", "moved");
+        changed.put("date", "2025-04-02");
+
+        assertEquals(HttpStatus.OK, rest.exchange("/api/expenses/" + id, HttpMethod.PUT,
+                new HttpEntity<>(changed, headers), Map.class).getStatusCode());
+
+        assertRollup(202503, "Food", 0, 0);
+        assertRollup(202504, "Travel", 25, 1);
+    }
+
+    @Test
+    void deleteSubtractsFromRollup() {
+        create(10, "Food", "2025-03-10");
+        Number id = create(4, "Food", "2025-03-12");
+
+        assertEquals(HttpStatus.OK, rest.exchange("/api/expenses/" + id, HttpMethod.DELETE,
+                new HttpEntity<>(headers), Void.class).getStatusCode());
+
+        assertRollup(202503, "Food", 10, 1);
+    }
+
+    @Test
+    void putWithStaleVersionIsConflictAndLeavesRollupAlone() {
+        Number id = create(10, "Food", "2025-03-10");
+        Map<String, Object> first = new HashMap<>();
+        first.put("amount", 12.0);
+        first.put("category", "Food");
+        first.put("date", "2025-03-10");
+        first.put("version", 0);
+        assertEquals(HttpStatus.OK, rest.exchange("/api/expenses/" + id, HttpMethod.PUT,
+                new HttpEntity<>(first, headers), Map.class).getStatusCode());
+
+        Map<String, Object> stale = new HashMap<>(first);
+        stale.put("amount", 99.0);
+        assertEquals(HttpStatus.CONFLICT, rest.exchange("/api/expenses/" + id, HttpMethod.PUT,
+                new HttpEntity<>(stale, headers), Map.class).getStatusCode());
+
+        assertRollup(202503, "Food", 12, 1);
+    }
+
+    private void assertRollup(int period, String category, double total, long count) {
+        Long userId = userRepository.findByUsername(username).getId();
+        double actualTotal = 0;
+        long actualCount = 0;
+        for (MonthlyRollup row : rollupRepository.findByUserIdAndKindAndPeriod(userId, LedgerKind.EXPENSE, period)) {
+            if (row.getCategory().equals(category)) {
+                actualTotal += row.getTotal();
+                actualCount += row.getEntryCount();
+            }
+        }
+        assertEquals(total, actualTotal, 1e-9, period + " " + category);
+        assertEquals(count, actualCount, period + " " + category);
+    }
+
+    private Number create(double amount, String category, String date) {
+        Map<String, Object> expense = new HashMap<>();
+        expense.put("amount", amount);
+        expense.put("category", category);
+        expense.put("description", category + " " + amount);
+        expense.put("date", date);
+        Map<?, ?> saved = rest.postForObject("/api/expenses", new HttpEntity<>(expense, headers), Map.class);
+        return (Number) saved.get("id");
+    }
+
+    private static List<Long> longs(List<Number> ids) {
+        List<Long> result = new ArrayList<>();
+        for (Number id : ids) {
+            result.add(id.longValue());
+        }
+        return result;
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
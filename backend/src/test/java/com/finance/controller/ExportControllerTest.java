@@ -0,0 +1,66 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportControllerTest extends PostgresIntegrationTest {
+    @Autowired
+    private TestRestTemplate rest;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signup() {
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put("username", "export-" + System.nanoTime());
+        credentials.put("password", "export-password");
+        Map<?, ?> response = rest.postForObject("/api/auth/signup", credentials, Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+    }
+
+    @Test
+    void unknownFormatIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, get("/api/export/expenses?format=xlsx").getStatusCode());
+    }
+
+    @Test
+    void unknownDatasetIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, get("/api/export/passwords").getStatusCode());
+    }
+
+    @Test
+    void exportsCsvWithHeader() {
+        Map<String, Object> expense = new HashMap<>();
+        expense.put("amount", 12.5);
+        expense.put("category", "Food");
+        expense.put("description", "Lunch");
+        expense.put("date", "2025-03-15");
+        rest.postForObject("/api/expenses", new HttpEntity<>(expense, headers), Map.class);
+
+        ResponseEntity<String> response = get("/api/export/expenses?format=csv");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String[] lines = response.getBody().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("Lunch"), lines[1]);
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
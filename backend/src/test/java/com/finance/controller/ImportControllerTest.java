@@ -0,0 +1,60 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ImportControllerTest extends PostgresIntegrationTest {
+    @Autowired
+    private TestRestTemplate rest;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signup() {
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put("username", "import-" + System.nanoTime());
+        credentials.put("password", "import-password");
+        Map<?, ?> response = rest.postForObject("/api/auth/signup", credentials, Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+    }
+
+    @Test
+    void unknownFormatIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, post("/api/import?format=qif", "date,amount\n").getStatusCode());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, post("/api/import?format=csv", "when,what\n2025-01-01,x\n").getStatusCode());
+    }
+
+    @Test
+    void badLinesAreReportedAndTheRestImported() {
+        ResponseEntity<Map> response = post("/api/import?format=csv",
+                "date,description,amount\n2025-01-02,Coffee,-3.5\nnot-a-date,Broken,-1\n2025-01-03,Salary,2000\n");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ((Number) response.getBody().get("expensesImported")).intValue());
+        assertEquals(1, ((Number) response.getBody().get("incomesImported")).intValue());
+        assertEquals(1, ((Number) response.getBody().get("errorCount")).intValue());
+    }
+
+    private ResponseEntity<Map> post(String path, String statement) {
+        return rest.postForEntity(path, new HttpEntity<>(statement, headers), Map.class);
+    }
+}
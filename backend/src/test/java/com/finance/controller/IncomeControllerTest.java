@@ -0,0 +1,85 @@
+package com.finance.controller;
+
+import com.finance.PostgresIntegrationTest;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.repository.MonthlyRollupRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncomeControllerTest extends PostgresIntegrationTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private String username;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signup() {
+        Map<String, Object> credentials = new HashMap<>();
+        username = "income-" + System.nanoTime();
+        credentials.put("username", username);
+        credentials.put("password", "income-password");
+        Map<?, ?> response = rest.postForObject("/api/auth/signup", credentials, Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+    }
+
+    @Test
+    void updateAndDeleteApplyRollupDeltas() {
+        Number id = create(1000, "Salary", "2025-03-01");
+        Map<String, Object> changed = new HashMap<>();
+        changed.put("amount", 1200.0);
+        changed.put("source", "Salary");
+        changed.put("date", "2025-03-01");
+        changed.put("version", 0);
+
+        assertEquals(HttpStatus.OK, rest.exchange("/api/income/" + id, HttpMethod.PUT,
+                new HttpEntity<>(changed, headers), Map.class).getStatusCode());
+        assertEquals(1200.0, total(202503));
+
+        assertEquals(HttpStatus.CONFLICT, rest.exchange("/api/income/" + id, HttpMethod.PUT,
+                new HttpEntity<>(changed, headers), Map.class).getStatusCode());
+        assertEquals(1200.0, total(202503));
+
+        assertEquals(HttpStatus.OK, rest.exchange("/api/income/" + id, HttpMethod.DELETE,
+                new HttpEntity<>(headers), Void.class).getStatusCode());
+        assertEquals(0.0, total(202503));
+    }
+
+    private double total(int period) {
+        Long userId = userRepository.findByUsername(username).getId();
+        List<MonthlyRollup> rows = rollupRepository.findByUserIdAndKindAndPeriod(userId, LedgerKind.INCOME, period);
+        double total = 0;
+        for (MonthlyRollup row : rows) {
+            total += row.getTotal();
+        }
+        return total;
+    }
+
+    private Number create(double amount, String source, String date) {
+        Map<String, Object> income = new HashMap<>();
+        income.put("amount", amount);
+        income.put("source", source);
+        income.put("date", date);
+        Map<?, ?> saved = rest.postForObject("/api/income", new HttpEntity<>(income, headers), Map.class);
+        return (Number) saved.get("id");
+    }
+}
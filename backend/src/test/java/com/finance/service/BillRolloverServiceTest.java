@@ -0,0 +1,115 @@
+package com.finance.service;
+
+import com.finance.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs the rollover with a batch size of 2 so a handful of bills takes several batches
+class BillRolloverServiceTest extends PostgresIntegrationTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private ChangeVersionService versions;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpHeaders headers;
+    private BillRolloverService rollover;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put("username", "bills-" + System.nanoTime());
+        credentials.put("password", "bills-password");
+        Map<?, ?> response = rest.postForObject("/api/auth/signup", credentials, Map.class);
+        headers = new HttpHeaders();
+        headers.setBearerAuth((String) response.get("token"));
+        rollover = new BillRolloverService(jdbcTemplate, versions, transactionManager, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void rollsEveryDueBillAcrossBatches() {
+        Number monthly = create("2025-06-15", true, "MONTHLY", true);
+        Number quarterly = create("2025-05-31", true, "QUARTERLY", true);
+        Number yearly = create("2024-02-29", true, "YEARLY", true);
+        Number lowercase = create("2025-06-01", true, "monthly", true);
+        Number noFrequency = create("2025-01-31", true, null, true);
+        Number unpaid = create("2025-06-01", true, "MONTHLY", false);
+        Number notDue = create("2025-06-16", true, "MONTHLY", true);
+        Number oneOff = create("2025-06-01", false, null, true);
+
+        assertEquals(5, rollover.rollOverPaidBills(TODAY));
+
+        assertRolled(monthly, "2025-07-15");
+        assertRolled(quarterly, "2025-08-31");
+        assertRolled(yearly, "2025-02-28");
+        assertRolled(lowercase, "2025-07-01");
+        assertRolled(noFrequency, "2025-02-28");
+        assertUnchanged(unpaid, "2025-06-01", false);
+        assertUnchanged(notDue, "2025-06-16", true);
+        assertUnchanged(oneOff, "2025-06-01", true);
+
+        // Rolled bills are unpaid, so a second run finds nothing even though some are still overdue
+        assertEquals(0, rollover.rollOverPaidBills(TODAY));
+    }
+
+    @Test
+    void batchOfExactlyBatchSizeIsFollowedByAnEmptyOne() {
+        create("2025-06-01", true, "MONTHLY", true);
+        create("2025-06-02", true, "MONTHLY", true);
+        create("2025-06-03", true, "MONTHLY", true);
+        create("2025-06-04", true, "MONTHLY", true);
+
+        assertEquals(4, rollover.rollOverPaidBills(TODAY));
+    }
+
+    private Number create(String dueDate, boolean recurring, String frequency, boolean paid) {
+        Map<String, Object> bill = new HashMap<>();
+        bill.put("billName", "Bill due " + dueDate);
+        bill.put("amount", 10.0);
+        bill.put("dueDate", dueDate);
+        bill.put("recurring", recurring);
+        bill.put("frequency", frequency);
+        bill.put("paid", paid);
+        return (Number) rest.postForObject("/api/bill-reminders", new HttpEntity<>(bill, headers), Map.class).get("id");
+    }
+
+    private void assertRolled(Number id, String dueDate) {
+        assertUnchanged(id, dueDate, false);
+    }
+
+    private void assertUnchanged(Number id, String dueDate, boolean paid) {
+        Map<?, ?> bill = find(id);
+        assertEquals(dueDate, bill.get("dueDate"), "due date of bill " + id);
+        assertEquals(paid, bill.get("paid"), "paid flag of bill " + id);
+    }
+
+    private Map<?, ?> find(Number id) {
+        Map<?, ?>[] bills = rest.exchange("/api/bill-reminders", HttpMethod.GET, new HttpEntity<>(headers),
+                Map[].class).getBody();
+        for (Map<?, ?> bill : bills) {
+            if (((Number) bill.get("id")).longValue() == id.longValue()) {
+                return bill;
+            }
+        }
+        throw new AssertionError("bill " + id + " not found");
+    }
+}
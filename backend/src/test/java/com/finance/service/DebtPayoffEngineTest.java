@@ -0,0 +1,72 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebtPayoffEngineTest {
+    @Test
+    void singleDebtAmortizesWithMonthlyInterest() {
+        // 1000 at 12% a year (1% a month) paid 100 a month
+        DebtPayoffEngine engine = new DebtPayoffEngine(new double[]{1000}, new double[]{12}, new double[]{100});
+
+        DebtPayoffEngine.Result result = engine.simulate(engine.order(DebtPayoffEngine.Strategy.AVALANCHE, null), 0, false);
+
+        assertEquals(11, result.months);
+        assertEquals(58.98, result.totalInterest, 0.01);
+        assertEquals(1000 + result.totalInterest, result.totalPaid, 1e-6);
+    }
+
+    @Test
+    void extraGoesToPriorityDebtAndFreedMinimumsRollOver() {
+        // No interest: 200 a month in total, debt 0 (smaller, wins the tie) gets the extra 100 first
+        DebtPayoffEngine engine = new DebtPayoffEngine(new double[]{300, 600}, new double[]{0, 0},
+                new double[]{50, 50});
+
+        DebtPayoffEngine.Result result = engine.simulate(engine.order(DebtPayoffEngine.Strategy.AVALANCHE, null), 100, true);
+
+        assertArrayEquals(new int[]{2, 5}, result.payoffMonth);
+        assertEquals(5, result.months);
+        assertEquals(900, result.totalPaid, 1e-9);
+        assertEquals(150, result.schedulePayment[0], 1e-9);
+        assertEquals(150, result.schedulePayment[2], 1e-9);
+        assertEquals(200, result.schedulePayment[2 * 2 + 1], 1e-9);
+    }
+
+    @Test
+    void strategiesOrderByRateOrBalance() {
+        DebtPayoffEngine engine = new DebtPayoffEngine(new double[]{500, 200, 900}, new double[]{20, 5, 10},
+                new double[]{25, 25, 25});
+
+        assertArrayEquals(new int[]{0, 2, 1}, engine.order(DebtPayoffEngine.Strategy.AVALANCHE, null));
+        assertArrayEquals(new int[]{1, 0, 2}, engine.order(DebtPayoffEngine.Strategy.SNOWBALL, null));
+        assertArrayEquals(new int[]{1, 0, 2}, engine.order(DebtPayoffEngine.Strategy.CUSTOM, new int[]{1, 7, 1}));
+    }
+
+    @Test
+    void negativeMinimumIsTreatedAsZero() {
+        DebtPayoffEngine engine = new DebtPayoffEngine(new double[]{100, 100}, new double[]{0, 0},
+                new double[]{-50, 50});
+
+        DebtPayoffEngine.Result result = engine.simulate(new int[]{1, 0}, 0, true);
+
+        assertArrayEquals(new int[]{4, 2}, result.payoffMonth);
+        assertEquals(100, result.paid[0], 1e-9);
+        for (int i = 0; i < result.scheduleMonths * 2; i++) {
+            assertTrue(result.schedulePayment[i] >= 0, "payment " + i);
+        }
+    }
+
+    @Test
+    void unaffordableDebtIsNotPaidOff() {
+        // Interest of 10 a month on a 10 minimum never reduces the balance
+        DebtPayoffEngine engine = new DebtPayoffEngine(new double[]{1000}, new double[]{12}, new double[]{10});
+
+        DebtPayoffEngine.Result result = engine.simulate(new int[]{0}, 0, false);
+
+        assertEquals(-1, result.months);
+        assertEquals(-1, result.payoffMonth[0]);
+    }
+}
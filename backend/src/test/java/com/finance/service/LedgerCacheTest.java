@@ -0,0 +1,112 @@
+package com.finance.service;
+
+import com.finance.model.LedgerKind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Replays the interleavings of a committing write and a cache load on one thread, against a fake expense table
+class LedgerCacheTest {
+    private static final Long USER = 7L;
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 15);
+
+    private final FakeLedger ledger = new FakeLedger();
+    private final LedgerCache cache = new LedgerCache(ledger, new SimpleMeterRegistry(), true, 1 << 20);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void writeCommittedBeforeLoadButAppendedAfterIsNotCountedTwice() throws Exception {
+        List<TransactionSynchronization> write = recordExpense(1000);
+        write.forEach(sync -> sync.beforeCommit(false));
+        ledger.expenses.add(1000L);
+
+        assertEquals(1, cache.get(USER).entryCount(LedgerKind.EXPENSE));
+        write.forEach(TransactionSynchronization::afterCommit);
+        write.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        LedgerColumns columns = cache.get(USER);
+        assertEquals(1, columns.entryCount(LedgerKind.EXPENSE));
+        assertEquals(1000, columns.totalCents(LedgerKind.EXPENSE));
+    }
+
+    @Test
+    void writeCommittedAfterLoadIsAppended() throws Exception {
+        ledger.expenses.add(500L);
+        assertEquals(1, cache.get(USER).entryCount(LedgerKind.EXPENSE));
+
+        List<TransactionSynchronization> write = recordExpense(1000);
+        write.forEach(sync -> sync.beforeCommit(false));
+        ledger.expenses.add(1000L);
+        write.forEach(TransactionSynchronization::afterCommit);
+        write.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        LedgerColumns columns = cache.get(USER);
+        assertEquals(2, columns.entryCount(LedgerKind.EXPENSE));
+        assertEquals(1500, columns.totalCents(LedgerKind.EXPENSE));
+        assertEquals(1, ledger.loads);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotBlockCaching() throws Exception {
+        List<TransactionSynchronization> write = recordExpense(1000);
+        write.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        cache.get(USER);
+        cache.get(USER);
+        assertEquals(1, ledger.loads);
+    }
+
+    private List<TransactionSynchronization> recordExpense(long cents) {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.record(USER, LedgerKind.EXPENSE, DAY, cents / 100.0, "Food", 1);
+        List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    // Serves the cache's expense query from a list of amounts in cents; income is empty
+    private static final class FakeLedger extends JdbcTemplate {
+        final List<Long> expenses = new ArrayList<>();
+        int loads;
+
+        @Override
+        public void query(String sql, RowCallbackHandler handler, Object... args) {
+            if (!sql.contains("from expense")) {
+                return;
+            }
+            loads++;
+            try {
+                for (long cents : expenses) {
+                    ResultSet row = mock(ResultSet.class);
+                    when(row.getDate(1)).thenReturn(Date.valueOf(DAY));
+                    when(row.getDouble(2)).thenReturn(cents / 100.0);
+                    when(row.getString(3)).thenReturn("Food");
+                    handler.processRow(row);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SavingsProjectionEngineTest {
+    @Test
+    void constantSavingsReachGoalsInFundingOrder() {
+        // 100 a month: the first goal needs 250 (month 3), the second 100 more (month 4)
+        SavingsProjectionEngine engine = new SavingsProjectionEngine(new double[]{100}, new double[]{250, 100}, 24);
+        int paths = 10;
+        int[] hitMonth = new int[engine.goalCount() * paths];
+
+        engine.simulate(new SplittableRandom(1), 0, paths, paths, hitMonth);
+
+        for (int path = 0; path < paths; path++) {
+            assertEquals(3, hitMonth[path]);
+            assertEquals(4, hitMonth[paths + path]);
+        }
+    }
+
+    @Test
+    void fundedGoalIsReachedAtMonthZeroAndUnreachableOneNever() {
+        SavingsProjectionEngine engine = new SavingsProjectionEngine(new double[]{-50, 20}, new double[]{0, 1e9}, 12);
+        int[] hitMonth = new int[2];
+
+        engine.simulate(new SplittableRandom(1), 0, 1, 1, hitMonth);
+
+        assertArrayEquals(new int[]{0, SavingsProjectionEngine.NOT_REACHED}, hitMonth);
+    }
+
+    @Test
+    void simulatesOnlyItsChunkOfPaths() {
+        SavingsProjectionEngine engine = new SavingsProjectionEngine(new double[]{100}, new double[]{100}, 12);
+        int[] hitMonth = {-1, -1, -1, -1};
+
+        engine.simulate(new SplittableRandom(1), 1, 3, 4, hitMonth);
+
+        assertArrayEquals(new int[]{-1, 1, 1, -1}, hitMonth);
+    }
+
+    @Test
+    void percentilesAndReachedShareReadSortedColumns() {
+        int nr = SavingsProjectionEngine.NOT_REACHED;
+        // Two goals of five paths each
+        int[] hitMonth = {7, 3, nr, 5, 1, 9, 2, 4, 8, 6};
+
+        SavingsProjectionEngine.sortColumns(hitMonth, 2, 5);
+
+        assertArrayEquals(new int[]{1, 3, 5, 7, nr, 2, 4, 6, 8, 9}, hitMonth);
+        assertEquals(1, SavingsProjectionEngine.percentile(hitMonth, 0, 5, 10));
+        assertEquals(5, SavingsProjectionEngine.percentile(hitMonth, 0, 5, 50));
+        assertEquals(nr, SavingsProjectionEngine.percentile(hitMonth, 0, 5, 90));
+        assertEquals(9, SavingsProjectionEngine.percentile(hitMonth, 1, 5, 100));
+        assertEquals(0.6, SavingsProjectionEngine.reachedBy(hitMonth, 0, 5, 5), 1e-9);
+        assertEquals(0.8, SavingsProjectionEngine.reachedBy(hitMonth, 0, 5, 1200), 1e-9);
+        assertEquals(0.0, SavingsProjectionEngine.reachedBy(hitMonth, 1, 5, 1), 1e-9);
+    }
+
+    @Test
+    void sameSeedGivesSamePaths() {
+        SavingsProjectionEngine engine = new SavingsProjectionEngine(new double[]{-200, 50, 300, 120},
+                new double[]{1000, 500}, 120);
+        int[] first = new int[2 * 100];
+        int[] second = new int[2 * 100];
+
+        engine.simulate(new SplittableRandom(42), 0, 100, 100, first);
+        engine.simulate(new SplittableRandom(42), 0, 100, 100, second);
+
+        assertArrayEquals(first, second);
+    }
+}
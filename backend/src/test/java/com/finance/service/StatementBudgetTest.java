@@ -0,0 +1,90 @@
+package com.finance.service;
+
+import com.finance.PostgresIntegrationTest;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.finance.util.SqlStatementAssertions.assertStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The read paths behind the dashboard and reports must stay within the load suite's statement budgets
+// however many rows the user has, i.e. no per-row queries.
+class StatementBudgetTest extends PostgresIntegrationTest {
+    private static final int ROWS = 60;
+    private static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Utilities"};
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private FinancialReportService reportService;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        String username = "statements-" + System.nanoTime();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(signup(username));
+        for (int i = 0; i < ROWS; i++) {
+            post("/api/expenses", headers, body("amount", 10 + i, "description", "Expense " + i,
+                    "category", CATEGORIES[i % CATEGORIES.length], "date", String.format("2025-%02d-15", i % 12 + 1)));
+        }
+        for (String category : CATEGORIES) {
+            post("/api/budgets", headers, body("category", category, "amount", 500, "month", "2025-03"));
+        }
+        userId = userRepository.findByUsername(username).getId();
+    }
+
+    @Test
+    void dashboardIssuesOneStatementPerPart() {
+        Map<String, Object> dashboard = assertStatements(8, 2, () -> dashboardService.getDashboard(userId));
+
+        assertEquals(List.of(), dashboard.get("unavailable"));
+    }
+
+    @Test
+    void budgetUtilizationDoesNotQueryPerBudget() {
+        Map<String, Object> utilization = assertStatements(4, 2, () -> budgetService.getUtilization(userId, 202503));
+
+        assertEquals(CATEGORIES.length, ((List<?>) utilization.get("categories")).size());
+    }
+
+    @Test
+    void yearlyReportReadsTheRollupsOnce() {
+        assertStatements(3, 2, () -> reportService.generateYearlyReport(userId, 2025));
+    }
+
+    private String signup(String username) {
+        Map<?, ?> response = rest.postForObject("/api/auth/signup",
+                body("username", username, "password", "statement-password"), Map.class);
+        return (String) response.get("token");
+    }
+
+    private void post(String path, HttpHeaders headers, Map<String, Object> body) {
+        assertEquals(HttpStatus.OK, rest.postForEntity(path, new HttpEntity<>(body, headers), Map.class).getStatusCode());
+    }
+
+    private static Map<String, Object> body(Object... pairs) {
+        Map<String, Object> body = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            body.put((String) pairs[i], pairs[i + 1]);
+        }
+        return body;
+    }
+}
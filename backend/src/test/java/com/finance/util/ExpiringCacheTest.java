@@ -0,0 +1,43 @@
+package com.finance.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringCacheTest {
+    @Test
+    void entryExpiresAfterItsOwnShorterTtl() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60_000);
+        cache.put("short", "a", 20);
+        cache.put("long", "b");
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("short"));
+        assertEquals("b", cache.get("long"));
+    }
+
+    @Test
+    void nonPositiveTtlIsNotStored() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60_000);
+        cache.put("expired", "a", 0);
+
+        assertNull(cache.get("expired"));
+    }
+
+    // A full cache keeps the key that keeps being read, the JWT of an active session
+    @Test
+    void keepsHotKeyWhenFull() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, 60_000);
+        cache.put(-1, -1);
+        for (int i = 0; i < 10_000; i++) {
+            cache.get(-1);
+            cache.put(i, i);
+        }
+
+        assertEquals(-1, cache.get(-1));
+        assertTrue(cache.size() <= 200);
+    }
+}
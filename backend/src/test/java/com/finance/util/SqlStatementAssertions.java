@@ -0,0 +1,30 @@
+package com.finance.util;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// In-process counterpart of the load suite's max-statements budgets: runs a call against a booted context
+// and fails when it issues more SQL statements than allowed or repeats one statement (N+1). Statements on
+// threads the call hands work to are counted when the work goes through SqlStatementLog.propagate.
+public final class SqlStatementAssertions {
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> call) {
+        return assertStatements(max, Integer.MAX_VALUE, call);
+    }
+
+    public static <T> T assertStatements(int max, int repeatThreshold, Supplier<T> call) {
+        try (SqlStatementLog statements = SqlStatementLog.open()) {
+            T result = call.get();
+            if (statements.count() > max) {
+                throw new AssertionError("Expected at most " + max + " SQL statements but got " + statements.count());
+            }
+            Map<String, Integer> repeated = statements.repeated(repeatThreshold);
+            if (!repeated.isEmpty()) {
+                throw new AssertionError("Repeated SQL statements (possible N+1): " + repeated);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance.bench;
+
+import com.finance.config.ExecutorConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Dashboard-style fan-out under concurrent requests: each request runs five parts that block for a simulated
+// query round trip. Compares the two fanOutExecutor modes; "virtual" falls back to the platform pool (with a
+// warning) on JVMs older than 21, so run it on 21+ to get a real comparison.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class FanOutBenchmark {
+    private static final int PARTS = 5;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"32"})
+    public int platformThreads;
+
+    @Param({"1000"})
+    public long partLatencyMicros;
+
+    private ExecutorService fanOutExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fanOutExecutor = new ExecutorConfig().fanOutExecutor("virtual".equals(executor), platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object dashboardRequest() {
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[PARTS];
+        for (int i = 0; i < PARTS; i++) {
+            final int part = i;
+            parts[i] = CompletableFuture.supplyAsync(() -> {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(partLatencyMicros));
+                return part;
+            }, fanOutExecutor);
+        }
+        return CompletableFuture.allOf(parts).join();
+    }
+}
@@ -0,0 +1,73 @@
+package com.finance.bench;
+
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.repository.KindTotal;
+import com.finance.repository.MonthlyRollupRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+// Serves the report queries from a fixed row list so FinancialReportService can be measured without a database.
+final class InMemoryRollupRepository {
+    private InMemoryRollupRepository() {
+    }
+
+    static MonthlyRollupRepository of(List<MonthlyRollup> rows) {
+        return (MonthlyRollupRepository) Proxy.newProxyInstance(
+                MonthlyRollupRepository.class.getClassLoader(),
+                new Class<?>[]{MonthlyRollupRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByUserIdAndKindAndPeriod":
+                            return byKindAndPeriod(rows, (LedgerKind) args[1], (Integer) args[2]);
+                        case "findByUserIdAndPeriodBetween":
+                            return byPeriodRange(rows, (Integer) args[1], (Integer) args[2]);
+                        case "sumByKind":
+                            return sumByKind(rows);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static List<MonthlyRollup> byKindAndPeriod(List<MonthlyRollup> rows, LedgerKind kind, int period) {
+        List<MonthlyRollup> result = new ArrayList<>();
+        for (MonthlyRollup row : rows) {
+            if (row.getKind() == kind && row.getPeriod() == period) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static List<MonthlyRollup> byPeriodRange(List<MonthlyRollup> rows, int from, int to) {
+        List<MonthlyRollup> result = new ArrayList<>();
+        for (MonthlyRollup row : rows) {
+            if (row.getPeriod() >= from && row.getPeriod() <= to) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static List<KindTotal> sumByKind(List<MonthlyRollup> rows) {
+        double[] totals = new double[LedgerKind.values().length];
+        long[] counts = new long[totals.length];
+        for (MonthlyRollup row : rows) {
+            totals[row.getKind().ordinal()] += row.getTotal();
+            counts[row.getKind().ordinal()] += row.getEntryCount();
+        }
+        List<KindTotal> result = new ArrayList<>();
+        for (LedgerKind kind : LedgerKind.values()) {
+            final int i = kind.ordinal();
+            result.add(new KindTotal() {
+                public LedgerKind getKind() { return kind; }
+                public double getTotal() { return totals[i]; }
+                public long getEntryCount() { return counts[i]; }
+            });
+        }
+        return result;
+    }
+}
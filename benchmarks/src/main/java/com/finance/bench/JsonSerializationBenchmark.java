@@ -0,0 +1,49 @@
+package com.finance.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response body cost of the list endpoints; the mapper is configured the way Spring Boot configures its own.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"50", "500", "5000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<Expense> expenses;
+    private List<Income> incomes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writer();
+        expenses = SyntheticData.expenses(size, 42);
+        incomes = SyntheticData.incomes(size, 43);
+    }
+
+    @Benchmark
+    public byte[] expenses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(expenses);
+    }
+
+    @Benchmark
+    public byte[] incomes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(incomes);
+    }
+}
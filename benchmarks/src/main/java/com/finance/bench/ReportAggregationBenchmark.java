@@ -0,0 +1,102 @@
+package com.finance.bench;
+
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.service.FinancialReportService;
+import com.finance.service.LedgerCache;
+import com.finance.service.LedgerColumns;
+import com.finance.service.MonthlyRollupService;
+import com.finance.service.ReportBuckets;
+import com.finance.util.MetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Yearly report cost against ledger size. bucketLedger is the per-entity aggregation the rollup rebuild
+// performs; the *FromRollups benchmarks are what a report request costs once monthly_rollup is populated, and
+// yearlyScanFromColumns is the scan behind a report when the columnar ledger cache holds the user.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportAggregationBenchmark {
+    private static final Long USER_ID = 1L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private List<Expense> expenses;
+    private List<Income> incomes;
+    private FinancialReportService reportService;
+    private LedgerColumns columns;
+    private int[] monthStarts;
+    private int yearEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = SyntheticData.expenses(rows, 42);
+        incomes = SyntheticData.incomes(rows / 10, 43);
+        List<MonthlyRollup> rollups = SyntheticData.rollups(expenses, incomes);
+        // A disabled cache, so the report service reads the rollups
+        reportService = new FinancialReportService(InMemoryRollupRepository.of(rollups),
+                new LedgerCache(null, new MetricsRegistry(), false, 0));
+
+        columns = new LedgerColumns();
+        for (Expense e : expenses) {
+            columns.append(LedgerKind.EXPENSE, (int) e.getDate().toEpochDay(), Math.round(e.getAmount() * 100),
+                    MonthlyRollupService.categoryKey(e.getCategory()), 1);
+        }
+        for (Income i : incomes) {
+            columns.append(LedgerKind.INCOME, (int) i.getDate().toEpochDay(), Math.round(i.getAmount() * 100),
+                    MonthlyRollupService.categoryKey(i.getSource()), 1);
+        }
+        monthStarts = new int[12];
+        for (int month = 1; month <= 12; month++) {
+            monthStarts[month - 1] = (int) LocalDate.of(SyntheticData.YEAR, month, 1).toEpochDay();
+        }
+        yearEnd = (int) LocalDate.of(SyntheticData.YEAR + 1, 1, 1).toEpochDay();
+    }
+
+    @Benchmark
+    public ReportBuckets[] bucketLedger() {
+        ReportBuckets expenseBuckets = new ReportBuckets();
+        for (Expense e : expenses) {
+            expenseBuckets.add(e.getDate().getMonthValue(), e.getCategory(), e.getAmount());
+        }
+        ReportBuckets incomeBuckets = new ReportBuckets();
+        for (Income i : incomes) {
+            incomeBuckets.add(i.getDate().getMonthValue(), i.getSource(), i.getAmount());
+        }
+        return new ReportBuckets[]{expenseBuckets, incomeBuckets};
+    }
+
+    @Benchmark
+    public LedgerColumns.Aggregate[] yearlyScanFromColumns() {
+        return new LedgerColumns.Aggregate[]{
+                columns.aggregate(LedgerKind.EXPENSE, monthStarts, yearEnd),
+                columns.aggregate(LedgerKind.INCOME, monthStarts, yearEnd)};
+    }
+
+    @Benchmark
+    public Map<String, Object> yearlyReportFromRollups() {
+        return reportService.generateYearlyReport(USER_ID, SyntheticData.YEAR);
+    }
+
+    @Benchmark
+    public Map<String, Object> monthlyReportFromRollups() {
+        return reportService.generateMonthlyReport(USER_ID, SyntheticData.YEAR, 6);
+    }
+
+    @Benchmark
+    public Map<String, Object> summaryFromRollups() {
+        return reportService.getFinancialSummary(USER_ID);
+    }
+}
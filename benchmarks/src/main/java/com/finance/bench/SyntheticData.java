@@ -0,0 +1,86 @@
+package com.finance.bench;
+
+import com.finance.model.Expense;
+import com.finance.model.Income;
+import com.finance.model.LedgerKind;
+import com.finance.model.MonthlyRollup;
+import com.finance.service.MonthlyRollupService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Deterministic ledgers shaped like real data: a dozen categories, a few income sources, one calendar year.
+final class SyntheticData {
+    static final int YEAR = 2024;
+
+    private static final String[] CATEGORIES = {
+            "Food", "Rent", "Transport", "Utilities", "Entertainment", "Health",
+            "Shopping", "Travel", "Education", "Insurance", "Gifts", null
+    };
+    private static final String[] SOURCES = {"Salary", "Freelance", "Dividends", "Refund"};
+
+    private SyntheticData() {
+    }
+
+    static List<Expense> expenses(int count, long seed) {
+        Random random = new Random(seed);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense expense = new Expense();
+            expense.setId((long) i + 1);
+            expense.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            expense.setAmount(Math.round(random.nextDouble() * 50000) / 100.0);
+            expense.setDescription("Synthetic expense " + i);
+            expense.setDate(LocalDate.ofYearDay(YEAR, 1 + random.nextInt(365)));
+            expense.setRecurring(random.nextInt(10) == 0);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    static List<Income> incomes(int count, long seed) {
+        Random random = new Random(seed);
+        List<Income> incomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Income income = new Income();
+            income.setId((long) i + 1);
+            income.setSource(SOURCES[random.nextInt(SOURCES.length)]);
+            income.setAmount(Math.round(random.nextDouble() * 400000) / 100.0);
+            income.setDescription("Synthetic income " + i);
+            income.setDate(LocalDate.ofYearDay(YEAR, 1 + random.nextInt(365)));
+            incomes.add(income);
+        }
+        return incomes;
+    }
+
+    // The monthly_rollup rows the rebuild queries would produce for these ledgers
+    static List<MonthlyRollup> rollups(List<Expense> expenses, List<Income> incomes) {
+        Map<String, MonthlyRollup> rows = new HashMap<>();
+        for (Expense e : expenses) {
+            accumulate(rows, LedgerKind.EXPENSE, MonthlyRollupService.periodOf(e.getDate()),
+                    MonthlyRollupService.categoryKey(e.getCategory()), e.getAmount());
+        }
+        for (Income i : incomes) {
+            accumulate(rows, LedgerKind.INCOME, MonthlyRollupService.periodOf(i.getDate()),
+                    MonthlyRollupService.categoryKey(i.getSource()), i.getAmount());
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static void accumulate(Map<String, MonthlyRollup> rows, LedgerKind kind, int period,
+                                   String category, double amount) {
+        MonthlyRollup row = rows.computeIfAbsent(kind + "|" + period + "|" + category, key -> {
+            MonthlyRollup created = new MonthlyRollup();
+            created.setKind(kind);
+            created.setPeriod(period);
+            created.setCategory(category);
+            return created;
+        });
+        row.setTotal(row.getTotal() + amount);
+        row.setEntryCount(row.getEntryCount() + 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.finance.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Thin JSON client over java.net.http that times every call against its endpoint name.
+final class ApiClient {
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    JsonNode get(String endpoint, String token, String path) {
+        return send(endpoint, token, path, "GET", null, null);
+    }
+
+    JsonNode post(String endpoint, String token, String path, Object body) {
+        return send(endpoint, token, path, "POST", body, "application/json");
+    }
+
+    JsonNode put(String endpoint, String token, String path, Object body) {
+        return send(endpoint, token, path, "PUT", body, "application/json");
+    }
+
+    JsonNode patch(String endpoint, String token, String path) {
+        return send(endpoint, token, path, "PATCH", null, null);
+    }
+
+    JsonNode delete(String endpoint, String token, String path) {
+        return send(endpoint, token, path, "DELETE", null, null);
+    }
+
+    JsonNode postText(String endpoint, String token, String path, String body, String contentType) {
+        return send(endpoint, token, path, "POST", body, contentType);
+    }
+
+    // Returns the parsed body (NullNode when empty), or null when the call failed; failures are counted as errors
+    private JsonNode send(String endpoint, String token, String path, String method, Object body, String contentType) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.noBody();
+        if (body != null) {
+            request.header("Content-Type", contentType);
+            try {
+                publisher = HttpRequest.BodyPublishers.ofString(body instanceof String ? (String) body : mapper.writeValueAsString(body));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        request.method(method, publisher);
+
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            boolean success = response.statusCode() < 400;
+            endpointStats.record(elapsed, success);
+            response.headers().firstValue("X-SQL-Statement-Count")
+                    .ifPresent(statements -> endpointStats.recordStatements(Integer.parseInt(statements)));
+            if (!success) {
+                return null;
+            }
+            return response.body().isEmpty() ? NullNode.getInstance() : mapper.readTree(response.body());
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
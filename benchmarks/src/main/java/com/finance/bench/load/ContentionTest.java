@@ -0,0 +1,214 @@
+package com.finance.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.finance.PersonalFinanceDashboardApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Optional throughput benchmark for the atomic contribute and payment updates (mvn -Pcontention verify); the
+// no-lost-update guarantee itself is checked by the backend's ConcurrentUpdateTest on every build.
+// Hammers one savings goal and one debt from many threads through the API (atomic UPDATE ... RETURNING
+// endpoints), then straight against the database to compare the old read-modify-write pattern with the single
+// statement. Exits with status 1 on any lost update in the atomic paths.
+// Settings: -Dcontention.threads (default 16), -Dcontention.ops-per-thread (default 250).
+public final class ContentionTest {
+    private static final String READ_GOAL_SQL = "select current_amount from savings_goal where id = ?";
+    private static final String WRITE_GOAL_SQL = "update savings_goal set current_amount = ? where id = ?";
+    // Same statement as SavingsGoalRepository.contribute
+    private static final String ATOMIC_GOAL_SQL = "update savings_goal set current_amount = current_amount + ?, " +
+            "completed = completed or current_amount + ? >= target_amount, version = coalesce(version, 0) + 1 " +
+            "where id = ? returning current_amount";
+
+    private interface Operation {
+        void run(int thread) throws Exception;
+    }
+
+    private ContentionTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("contention.threads", 16);
+        int opsPerThread = Integer.getInteger("contention.ops-per-thread", 250);
+        long expected = (long) threads * opsPerThread;
+        boolean ok = true;
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(PersonalFinanceDashboardApplication.class)
+                    .properties(
+                            "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "spring.datasource.username=postgres",
+                            "spring.datasource.password=postgres",
+                            "spring.datasource.hikari.maximum-pool-size=" + (threads + 4),
+                            "server.port=0",
+                            "logging.level.root=WARN")
+                    .run(args);
+            try {
+                ApiClient api = new ApiClient("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                String token = signup(api);
+                long goalId = api.post("POST /api/savings-goals", token, "/api/savings-goals",
+                        body("name", "Contended goal", "targetAmount", 1e12, "currentAmount", 0)).path("id").asLong();
+                long debtId = api.post("POST /api/debts", token, "/api/debts",
+                        body("name", "Contended debt", "totalAmount", 1e9, "remainingAmount", 1e9,
+                                "interestRate", 0, "minimumPayment", 0)).path("id").asLong();
+
+                System.out.printf("%d threads x %d operations%n", threads, opsPerThread);
+                double contributeRate = hammer(threads, opsPerThread, thread ->
+                        api.patch("PATCH /api/savings-goals/{id}/contribute", token,
+                                "/api/savings-goals/" + goalId + "/contribute?amount=1"));
+                double paymentRate = hammer(threads, opsPerThread, thread ->
+                        api.patch("PATCH /api/debts/{id}/payment", token, "/api/debts/" + debtId + "/payment?amount=1"));
+
+                double goalAmount = find(api.get("GET /api/savings-goals", token, "/api/savings-goals"), goalId)
+                        .path("currentAmount").asDouble();
+                double debtPaid = 1e9 - find(api.get("GET /api/debts", token, "/api/debts"), debtId)
+                        .path("remainingAmount").asDouble();
+                long errors = api.getStats().values().stream().mapToLong(s -> s.snapshot(1).errors).sum();
+                ok &= report("API contribute", contributeRate, expected, goalAmount);
+                ok &= report("API payment", paymentRate, expected, debtPaid);
+                if (errors > 0) {
+                    System.out.printf("%d API calls failed%n", errors);
+                    ok = false;
+                }
+
+                DataSource dataSource = context.getBean(DataSource.class);
+                reset(dataSource, goalId);
+                double legacyRate = hammer(threads, opsPerThread, thread -> readModifyWrite(dataSource, goalId));
+                report("SQL read-modify-write", legacyRate, expected, amount(dataSource, goalId));
+                reset(dataSource, goalId);
+                double atomicRate = hammer(threads, opsPerThread, thread -> atomicAdd(dataSource, goalId));
+                ok &= report("SQL atomic update", atomicRate, expected, amount(dataSource, goalId));
+                System.out.printf("Atomic update throughput: %.2fx read-modify-write%n", atomicRate / legacyRate);
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // Runs opsPerThread operations on each thread, all released at once; returns operations per second
+    private static double hammer(int threads, int opsPerThread, Operation operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Callable<Void> worker = () -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    operation.run(thread);
+                }
+                return null;
+            };
+            futures.add(pool.submit(worker));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        pool.shutdown();
+        return threads * opsPerThread / seconds;
+    }
+
+    private static boolean report(String name, double rate, long expected, double actual) {
+        long lost = expected - Math.round(actual);
+        System.out.printf("%-24s %10.1f ops/s   expected %d, got %.0f, lost %d%n", name, rate, expected, actual, lost);
+        return lost == 0;
+    }
+
+    // The pattern the endpoints used before: read in Java, write back, one transaction at READ COMMITTED
+    private static void readModifyWrite(DataSource dataSource, long goalId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            double current;
+            try (PreparedStatement read = connection.prepareStatement(READ_GOAL_SQL)) {
+                read.setLong(1, goalId);
+                try (ResultSet rs = read.executeQuery()) {
+                    rs.next();
+                    current = rs.getDouble(1);
+                }
+            }
+            try (PreparedStatement write = connection.prepareStatement(WRITE_GOAL_SQL)) {
+                write.setDouble(1, current + 1);
+                write.setLong(2, goalId);
+                write.executeUpdate();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void atomicAdd(DataSource dataSource, long goalId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(ATOMIC_GOAL_SQL)) {
+            update.setDouble(1, 1);
+            update.setDouble(2, 1);
+            update.setLong(3, goalId);
+            try (ResultSet rs = update.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static void reset(DataSource dataSource, long goalId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement("update savings_goal set current_amount = 0 where id = ?")) {
+            update.setLong(1, goalId);
+            update.executeUpdate();
+        }
+    }
+
+    private static double amount(DataSource dataSource, long goalId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement read = connection.prepareStatement(READ_GOAL_SQL)) {
+            read.setLong(1, goalId);
+            try (ResultSet rs = read.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+
+    private static String signup(ApiClient api) {
+        JsonNode response = api.post("POST /api/auth/signup", null, "/api/auth/signup",
+                body("username", "contention-" + System.currentTimeMillis(), "password", "contention-password"));
+        if (response == null || !response.hasNonNull("token")) {
+            throw new IllegalStateException("Signup failed");
+        }
+        return response.path("token").asText();
+    }
+
+    private static JsonNode find(JsonNode list, long id) {
+        for (JsonNode node : list) {
+            if (node.path("id").asLong() == id) {
+                return node;
+            }
+        }
+        throw new IllegalStateException("Row " + id + " not found");
+    }
+
+    private static Map<String, Object> body(Object... pairs) {
+        Map<String, Object> body = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            body.put((String) pairs[i], pairs[i + 1]);
+        }
+        return body;
+    }
+}
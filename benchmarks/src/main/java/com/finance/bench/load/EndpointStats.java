@@ -0,0 +1,84 @@
+package com.finance.bench.load;
+
+import java.util.Arrays;
+
+// Latency samples and error count for one logical endpoint; shared by all workers.
+final class EndpointStats {
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private int maxStatements = -1;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    // SQL statements the server reported for one call (X-SQL-Statement-Count)
+    synchronized void recordStatements(int statements) {
+        maxStatements = Math.max(maxStatements, statements);
+    }
+
+    synchronized void reset() {
+        count = 0;
+        errors = 0;
+        maxStatements = -1;
+    }
+
+    synchronized Snapshot snapshot(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(name, count, errors, percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                elapsedSeconds > 0 ? count / elapsedSeconds : 0, maxStatements);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    static final class Snapshot {
+        final String name;
+        final long requests;
+        final long errors;
+        final double p50Ms;
+        final double p99Ms;
+        final double maxMs;
+        final double requestsPerSecond;
+        final int maxStatements;
+
+        Snapshot(String name, long requests, long errors, double p50Ms, double p99Ms, double maxMs,
+                 double requestsPerSecond, int maxStatements) {
+            this.name = name;
+            this.requests = requests;
+            this.errors = errors;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.requestsPerSecond = requestsPerSecond;
+            this.maxStatements = maxStatements;
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+}
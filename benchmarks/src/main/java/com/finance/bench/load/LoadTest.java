@@ -0,0 +1,198 @@
+package com.finance.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finance.PersonalFinanceDashboardApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// End-to-end load suite: boots the backend against an embedded PostgreSQL, seeds users through the API,
+// drives the VirtualUser request mix and checks p50/p99 and error rates against load-test.properties.
+// Exits with status 1 when any budget is exceeded. Any setting can be overridden with -D<key>=<value>.
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties config = loadConfig();
+        int users = intSetting(config, "load.users");
+        int seedRows = intSetting(config, "load.seed-rows-per-user");
+        int concurrency = intSetting(config, "load.concurrency");
+        int warmupSeconds = intSetting(config, "load.warmup-seconds");
+        int durationSeconds = intSetting(config, "load.duration-seconds");
+
+        int exitCode;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(PersonalFinanceDashboardApplication.class)
+                    .properties(
+                            "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                            "spring.datasource.username=postgres",
+                            "spring.datasource.password=postgres",
+                            "spring.jpa.show-sql=false",
+                            "server.port=0",
+                            "logging.level.root=WARN")
+                    .run(args);
+            try {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                ApiClient api = new ApiClient("http://localhost:" + port);
+
+                List<VirtualUser> virtualUsers = seed(api, users, seedRows);
+                run(virtualUsers, concurrency, warmupSeconds);
+                for (EndpointStats stats : api.getStats().values()) {
+                    stats.reset();
+                }
+                long start = System.nanoTime();
+                run(virtualUsers, concurrency, durationSeconds);
+                double elapsed = (System.nanoTime() - start) / 1e9;
+
+                exitCode = report(api.getStats(), elapsed, config) ? 0 : 1;
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static List<VirtualUser> seed(ApiClient api, int users, int seedRows) {
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        long runId = System.currentTimeMillis();
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser(api, "load-" + runId + "-" + i, runId + i);
+            if (!user.signup()) {
+                throw new IllegalStateException("Signup failed for load test user " + i);
+            }
+            user.seed(seedRows);
+            virtualUsers.add(user);
+        }
+        System.out.printf("Seeded %d users with %d ledger rows each%n", users, seedRows);
+        return virtualUsers;
+    }
+
+    // Each worker owns a disjoint slice of the users so a user's id lists are only touched by one thread
+    private static void run(List<VirtualUser> users, int concurrency, int seconds) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        int workers = Math.min(concurrency, users.size());
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        for (int w = 0; w < workers; w++) {
+            List<VirtualUser> slice = new ArrayList<>();
+            for (int i = w; i < users.size(); i += workers) {
+                slice.add(users.get(i));
+            }
+            pool.execute(() -> {
+                int next = 0;
+                while (running.get()) {
+                    slice.get(next++ % slice.size()).step();
+                }
+            });
+        }
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private static boolean report(Map<String, EndpointStats> stats, double elapsed, Properties config) throws IOException {
+        double defaultP50 = Double.parseDouble(config.getProperty("budget.default.p50-ms"));
+        double defaultP99 = Double.parseDouble(config.getProperty("budget.default.p99-ms"));
+        double maxErrorRate = Double.parseDouble(config.getProperty("budget.max-error-rate"));
+        double defaultMaxStatements = Double.parseDouble(config.getProperty("budget.default.max-statements"));
+
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> results = new LinkedHashMap<>();
+        long totalRequests = 0;
+        System.out.printf("%-45s %9s %9s %10s %10s %10s %6s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms",
+                "errors", "sql");
+        for (EndpointStats endpoint : new TreeMap<>(stats).values()) {
+            EndpointStats.Snapshot s = endpoint.snapshot(elapsed);
+            totalRequests += s.requests;
+            System.out.printf("%-45s %9d %9.1f %10.2f %10.2f %10d %6d%n", s.name, s.requests, s.requestsPerSecond,
+                    s.p50Ms, s.p99Ms, s.errors, s.maxStatements);
+
+            double p50Budget = budget(config, s.name, "p50-ms", defaultP50);
+            double p99Budget = budget(config, s.name, "p99-ms", defaultP99);
+            if (s.p50Ms > p50Budget) {
+                violations.add(String.format("%s p50 %.2f ms > %.2f ms", s.name, s.p50Ms, p50Budget));
+            }
+            if (s.p99Ms > p99Budget) {
+                violations.add(String.format("%s p99 %.2f ms > %.2f ms", s.name, s.p99Ms, p99Budget));
+            }
+            double statementBudget = budget(config, s.name, "max-statements", defaultMaxStatements);
+            if (s.maxStatements > statementBudget) {
+                violations.add(String.format("%s issued %d SQL statements > %.0f", s.name, s.maxStatements, statementBudget));
+            }
+            if (s.errorRate() > maxErrorRate) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%", s.name, s.errorRate() * 100, maxErrorRate * 100));
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", s.requests);
+            entry.put("errors", s.errors);
+            entry.put("requestsPerSecond", s.requestsPerSecond);
+            entry.put("p50Ms", s.p50Ms);
+            entry.put("p99Ms", s.p99Ms);
+            entry.put("maxMs", s.maxMs);
+            entry.put("maxStatements", s.maxStatements);
+            entry.put("p50BudgetMs", p50Budget);
+            entry.put("p99BudgetMs", p99Budget);
+            entry.put("statementBudget", statementBudget);
+            results.put(s.name, entry);
+        }
+        System.out.printf("Total %d requests in %.1f s (%.1f req/s)%n", totalRequests, elapsed, totalRequests / elapsed);
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("elapsedSeconds", elapsed);
+        output.put("totalRequests", totalRequests);
+        output.put("requestsPerSecond", totalRequests / elapsed);
+        output.put("endpoints", results);
+        output.put("violations", violations);
+        File resultFile = new File(config.getProperty("load.result-file"));
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, output);
+
+        for (String violation : violations) {
+            System.out.println("BUDGET EXCEEDED: " + violation);
+        }
+        return violations.isEmpty();
+    }
+
+    // Budget keys are the endpoint name with spaces, slashes and braces flattened, e.g. budget.GET.api.dashboard.p99-ms
+    private static double budget(Properties config, String endpoint, String metric, double fallback) {
+        String key = "budget." + endpoint.replaceAll("[ /]+", ".").replaceAll("[{}]", "") + "." + metric;
+        String value = config.getProperty(key);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    private static Properties loadConfig() throws IOException {
+        Properties config = new Properties();
+        try (InputStream in = LoadTest.class.getResourceAsStream("/load-test.properties")) {
+            config.load(in);
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("load.") || key.startsWith("budget.")) {
+                config.setProperty(key, System.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    private static int intSetting(Properties config, String key) {
+        return Integer.parseInt(config.getProperty(key));
+    }
+}
@@ -0,0 +1,230 @@
+package com.finance.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// One simulated user: its own account, token and the ids it created, driven through a weighted request mix.
+final class VirtualUser {
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Utilities", "Entertainment", "Health"};
+
+    private interface Action {
+        void run(VirtualUser user);
+    }
+
+    private static final class Operation {
+        final int weight;
+        final Action action;
+
+        Operation(int weight, Action action) {
+            this.weight = weight;
+            this.action = action;
+        }
+    }
+
+    private static final List<Operation> MIX = new ArrayList<>();
+    private static int totalWeight;
+
+    static {
+        mix(2, VirtualUser::login);
+        mix(12, u -> u.api.get("GET /api/expenses", u.token, "/api/expenses?limit=50"));
+        mix(6, u -> u.created("expenses", u.api.post("POST /api/expenses", u.token, "/api/expenses", u.expense())));
+        mix(3, u -> u.update("expenses", "PUT /api/expenses/{id}", u.expense()));
+        mix(2, u -> u.delete("expenses", "DELETE /api/expenses/{id}"));
+        mix(6, u -> u.api.get("GET /api/income", u.token, "/api/income"));
+        mix(3, u -> u.created("income", u.api.post("POST /api/income", u.token, "/api/income", u.income())));
+        mix(1, u -> u.update("income", "PUT /api/income/{id}", u.income()));
+        mix(1, u -> u.delete("income", "DELETE /api/income/{id}"));
+        mix(3, u -> u.api.get("GET /api/debts", u.token, "/api/debts"));
+        mix(1, u -> u.created("debts", u.api.post("POST /api/debts", u.token, "/api/debts", u.debt())));
+        mix(1, u -> u.update("debts", "PUT /api/debts/{id}", u.debt()));
+        mix(1, u -> u.patch("debts", "PATCH /api/debts/{id}/payment", "/payment?amount=25"));
+        mix(1, u -> u.delete("debts", "DELETE /api/debts/{id}"));
+        mix(3, u -> u.api.get("GET /api/bill-reminders", u.token, "/api/bill-reminders"));
+        mix(1, u -> u.created("bill-reminders", u.api.post("POST /api/bill-reminders", u.token, "/api/bill-reminders", u.bill())));
+        mix(1, u -> u.update("bill-reminders", "PUT /api/bill-reminders/{id}", u.bill()));
+        mix(1, u -> u.patch("bill-reminders", "PATCH /api/bill-reminders/{id}/mark-paid", "/mark-paid?paid=true"));
+        mix(1, u -> u.delete("bill-reminders", "DELETE /api/bill-reminders/{id}"));
+        mix(3, u -> u.api.get("GET /api/savings-goals", u.token, "/api/savings-goals"));
+        mix(1, u -> u.created("savings-goals", u.api.post("POST /api/savings-goals", u.token, "/api/savings-goals", u.goal())));
+        mix(1, u -> u.update("savings-goals", "PUT /api/savings-goals/{id}", u.goal()));
+        mix(1, u -> u.patch("savings-goals", "PATCH /api/savings-goals/{id}/contribute", "/contribute?amount=50"));
+        mix(1, u -> u.delete("savings-goals", "DELETE /api/savings-goals/{id}"));
+        mix(2, u -> u.api.get("GET /api/budgets", u.token, "/api/budgets"));
+        mix(1, u -> u.created("budgets", u.api.post("POST /api/budgets", u.token, "/api/budgets", u.budget())));
+        mix(1, u -> u.delete("budgets", "DELETE /api/budgets/{id}"));
+        mix(3, u -> u.api.get("GET /api/budgets/utilization", u.token, "/api/budgets/utilization"));
+        mix(4, u -> u.api.get("GET /api/reports/monthly", u.token,
+                "/api/reports/monthly?year=" + u.today.getYear() + "&month=" + (1 + u.random.nextInt(12))));
+        mix(3, u -> u.api.get("GET /api/reports/yearly", u.token, "/api/reports/yearly?year=" + u.today.getYear()));
+        mix(4, u -> u.api.get("GET /api/reports/summary", u.token, "/api/reports/summary"));
+        mix(6, u -> u.api.get("GET /api/dashboard", u.token, "/api/dashboard"));
+    }
+
+    private static void mix(int weight, Action action) {
+        MIX.add(new Operation(weight, action));
+        totalWeight += weight;
+    }
+
+    private final ApiClient api;
+    private final String username;
+    private final String password = "load-test-password";
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+    private final Map<String, List<Long>> ids = new HashMap<>();
+    private String token;
+
+    VirtualUser(ApiClient api, String username, long seed) {
+        this.api = api;
+        this.username = username;
+        this.random = new Random(seed);
+    }
+
+    boolean signup() {
+        JsonNode response = api.post("POST /api/auth/signup", null, "/api/auth/signup", credentials());
+        token = response != null ? response.path("token").asText(null) : null;
+        return token != null;
+    }
+
+    // Seeds the ledger through the statement import endpoint: negative rows become expenses, positive ones income
+    void seed(int rows) {
+        StringBuilder csv = new StringBuilder("date,amount,description,category\n");
+        for (int i = 0; i < rows; i++) {
+            LocalDate date = today.minusDays(random.nextInt(730));
+            boolean income = random.nextInt(8) == 0;
+            double amount = income ? 500 + random.nextInt(3000) : -(1 + random.nextInt(20000) / 100.0);
+            csv.append(date).append(',').append(amount).append(",Seed row ").append(i).append(',')
+                    .append(income ? "Salary" : CATEGORIES[random.nextInt(CATEGORIES.length)]).append('\n');
+        }
+        api.postText("POST /api/import", token, "/api/import?format=csv", csv.toString(), "text/csv");
+        for (int i = 0; i < 5; i++) {
+            created("debts", api.post("POST /api/debts", token, "/api/debts", debt()));
+            created("bill-reminders", api.post("POST /api/bill-reminders", token, "/api/bill-reminders", bill()));
+            created("savings-goals", api.post("POST /api/savings-goals", token, "/api/savings-goals", goal()));
+        }
+    }
+
+    void step() {
+        int pick = random.nextInt(totalWeight);
+        for (Operation operation : MIX) {
+            pick -= operation.weight;
+            if (pick < 0) {
+                operation.action.run(this);
+                return;
+            }
+        }
+    }
+
+    private void login() {
+        JsonNode response = api.post("POST /api/auth/login", null, "/api/auth/login", credentials());
+        if (response != null) {
+            token = response.path("token").asText(token);
+        }
+    }
+
+    private Map<String, Object> credentials() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("username", username);
+        body.put("password", password);
+        return body;
+    }
+
+    private void created(String collection, JsonNode response) {
+        if (response != null && response.hasNonNull("id")) {
+            ids.computeIfAbsent(collection, key -> new ArrayList<>()).add(response.get("id").asLong());
+        }
+    }
+
+    // Mutations only touch rows this user created; with nothing to touch the step is skipped
+    private Long pickId(String collection) {
+        List<Long> owned = ids.get(collection);
+        return owned == null || owned.isEmpty() ? null : owned.get(random.nextInt(owned.size()));
+    }
+
+    private void update(String collection, String endpoint, Map<String, Object> body) {
+        Long id = pickId(collection);
+        if (id != null) {
+            api.put(endpoint, token, "/api/" + collection + "/" + id, body);
+        }
+    }
+
+    private void patch(String collection, String endpoint, String suffix) {
+        Long id = pickId(collection);
+        if (id != null) {
+            api.patch(endpoint, token, "/api/" + collection + "/" + id + suffix);
+        }
+    }
+
+    private void delete(String collection, String endpoint) {
+        Long id = pickId(collection);
+        if (id != null) {
+            ids.get(collection).remove(id);
+            api.delete(endpoint, token, "/api/" + collection + "/" + id);
+        }
+    }
+
+    private Map<String, Object> expense() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        body.put("amount", 1 + random.nextInt(20000) / 100.0);
+        body.put("description", "Load test expense");
+        body.put("date", today.minusDays(random.nextInt(60)).toString());
+        return body;
+    }
+
+    private Map<String, Object> income() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("source", "Salary");
+        body.put("amount", 500 + random.nextInt(3000));
+        body.put("description", "Load test income");
+        body.put("date", today.minusDays(random.nextInt(60)).toString());
+        body.put("frequency", "MONTHLY");
+        return body;
+    }
+
+    private Map<String, Object> debt() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "Card " + random.nextInt(100));
+        body.put("type", "CREDIT_CARD");
+        body.put("totalAmount", 5000);
+        body.put("remainingAmount", 1000 + random.nextInt(4000));
+        body.put("interestRate", 5 + random.nextInt(20));
+        body.put("minimumPayment", 50);
+        body.put("startDate", today.minusMonths(6).toString());
+        return body;
+    }
+
+    private Map<String, Object> bill() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("billName", "Bill " + random.nextInt(100));
+        body.put("amount", 20 + random.nextInt(200));
+        body.put("dueDate", today.plusDays(random.nextInt(45)).toString());
+        body.put("recurring", true);
+        body.put("frequency", "MONTHLY");
+        body.put("category", "Utilities");
+        return body;
+    }
+
+    private Map<String, Object> goal() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "Goal " + random.nextInt(100));
+        body.put("targetAmount", 10000);
+        body.put("currentAmount", random.nextInt(5000));
+        body.put("targetDate", today.plusYears(1).toString());
+        body.put("description", "Load test goal");
+        return body;
+    }
+
+    private Map<String, Object> budget() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        body.put("amount", 100 + random.nextInt(900));
+        body.put("month", today.toString().substring(0, 7));
+        return body;
+    }
+}
@@ -16,6 +16,7 @@ import SavingsGoals from "./components/SavingsGoals";
 import BillReminders from "./components/BillReminders";
 import DebtTracker from "./components/DebtTracker";
 import FinancialReports from "./components/FinancialReports";
+import LedgerSearch from "./components/LedgerSearch";
 
 // Protected Route Component
 const ProtectedRoute = ({ children }) => {
@@ -120,6 +121,17 @@ function App() {
               </ProtectedRoute>
             }
           />
+          <Route
+            path="/search"
+            element={
+              <ProtectedRoute>
+                <div>
+                  <h1>Personal Finance Dashboard</h1>
+                  <LedgerSearch />
+                </div>
+              </ProtectedRoute>
+            }
+          />
         </Routes>
       </Router>
     </AuthProvider>
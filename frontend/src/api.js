@@ -7,6 +7,9 @@ const SAVINGS_GOAL_API_URL = "http://localhost:8080/api/savings-goals";
 const BILL_REMINDER_API_URL = "http://localhost:8080/api/bill-reminders";
 const DEBT_API_URL = "http://localhost:8080/api/debts";
 const REPORT_API_URL = "http://localhost:8080/api/reports";
+const DASHBOARD_API_URL = "http://localhost:8080/api/dashboard";
+const EVENTS_API_URL = "http://localhost:8080/api/events";
+const SEARCH_API_URL = "http://localhost:8080/api/search";
 
 // Budget API
 export async function fetchBudgets() {
@@ -17,6 +20,16 @@ export async function fetchBudgets() {
   return res.json();
 }
 
+// Budget vs. actual spend per category for a "YYYY-MM" month
+export async function fetchBudgetUtilization(month) {
+  const res = await fetch(
+    `${BUDGET_API_URL}/utilization?month=${encodeURIComponent(month)}`,
+    { headers: getAuthHeaders() }
+  );
+  if (!res.ok) throw new Error("Failed to fetch budget utilization");
+  return res.json();
+}
+
 export async function addBudget(budget) {
   const res = await fetch(BUDGET_API_URL, {
     method: "POST",
@@ -36,6 +49,51 @@ export async function deleteBudget(id) {
   return true;
 }
 
+// Server-sent change events for the current user ({collection, action, id, version, amountDelta, data}).
+// onResync runs when the stream reconnects, since events sent while disconnected are lost.
+export function subscribeToChanges(onChange, onResync) {
+  let source = null;
+  let retry = null;
+  let closed = false;
+  let connected = false;
+  const reconnect = () => {
+    if (!closed) retry = setTimeout(open, 3000);
+  };
+  // EventSource cannot send the JWT, so each connection is opened with a fresh single-use ticket
+  const open = async () => {
+    try {
+      const res = await fetch(`${EVENTS_API_URL}/ticket`, {
+        method: "POST",
+        headers: getAuthHeaders(),
+      });
+      if (!res.ok) throw new Error("Failed to get event stream ticket");
+      const { ticket } = await res.json();
+      if (closed) return;
+      source = new EventSource(
+        `${EVENTS_API_URL}?ticket=${encodeURIComponent(ticket)}`
+      );
+      source.onopen = () => {
+        if (connected && onResync) onResync();
+        connected = true;
+      };
+      source.addEventListener("change", (e) => onChange(JSON.parse(e.data)));
+      // The ticket is spent, so EventSource's own retry would be refused; reconnect with a new one instead
+      source.onerror = () => {
+        source.close();
+        reconnect();
+      };
+    } catch (e) {
+      reconnect();
+    }
+  };
+  open();
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    if (source) source.close();
+  };
+}
+
 function getAuthHeaders() {
   const token = localStorage.getItem("token");
   return {
@@ -44,11 +102,34 @@ function getAuthHeaders() {
   };
 }
 
-export async function fetchExpenses() {
-  const res = await fetch(API_URL, {
+function filterParams(filters) {
+  const params = new URLSearchParams();
+  Object.entries(filters).forEach(([key, value]) => {
+    if (value !== "" && value !== null && value !== undefined) {
+      params.append(key, value);
+    }
+  });
+  return params;
+}
+
+// Fetches one filtered page of expenses; nextCursor is null on the last page
+export async function fetchExpensePage(filters = {}, cursor = null, limit = 50) {
+  const params = filterParams(filters);
+  params.append("limit", limit);
+  if (cursor) params.append("cursor", cursor);
+  const res = await fetch(`${API_URL}?${params.toString()}`, {
     headers: getAuthHeaders(),
   });
   if (!res.ok) throw new Error("Failed to fetch expenses");
+  return { items: await res.json(), nextCursor: res.headers.get("X-Next-Cursor") };
+}
+
+// Totals and month/category breakdown of every expense matching the filters, in the dashboard's spending shape
+export async function fetchExpenseSummary(filters = {}) {
+  const res = await fetch(`${API_URL}/summary?${filterParams(filters).toString()}`, {
+    headers: getAuthHeaders(),
+  });
+  if (!res.ok) throw new Error("Failed to fetch expense summary");
   return res.json();
 }
 
@@ -144,6 +225,8 @@ export async function editSavingsGoal(id, goal) {
     headers: getAuthHeaders(),
     body: JSON.stringify(goal),
   });
+  if (res.status === 409)
+    throw new Error("This goal was changed elsewhere. Reload and try again.");
   if (!res.ok) throw new Error("Failed to edit savings goal");
   return res.json();
 }
@@ -207,6 +290,24 @@ export async function deleteBillReminder(id) {
   return true;
 }
 
+// Ranked fuzzy search over expense and income descriptions, debt names and bill names
+export async function searchLedger(q, page = 0, size = 20) {
+  const params = new URLSearchParams({ q, page, size });
+  const res = await fetch(`${SEARCH_API_URL}?${params.toString()}`, {
+    headers: getAuthHeaders(),
+  });
+  if (!res.ok) throw new Error("Search failed");
+  return res.json();
+}
+
+export async function fetchUpcomingBills(days = 7) {
+  const res = await fetch(`${BILL_REMINDER_API_URL}/upcoming?days=${days}`, {
+    headers: getAuthHeaders(),
+  });
+  if (!res.ok) throw new Error("Failed to fetch upcoming bills");
+  return res.json();
+}
+
 export async function markBillPaid(id, paid) {
   const res = await fetch(
     `${BILL_REMINDER_API_URL}/${id}/mark-paid?paid=${paid}`,
@@ -244,6 +345,8 @@ export async function editDebt(id, debt) {
     headers: getAuthHeaders(),
     body: JSON.stringify(debt),
   });
+  if (res.status === 409)
+    throw new Error("This debt was changed elsewhere. Reload and try again.");
   if (!res.ok) throw new Error("Failed to edit debt");
   return res.json();
 }
@@ -266,6 +369,16 @@ export async function makeDebtPayment(id, amount) {
   return res.json();
 }
 
+// Payoff plan for all debts, simulated server-side (strategy: avalanche, snowball or custom)
+export async function fetchDebtPayoff(strategy = "avalanche", extra = 0) {
+  const params = new URLSearchParams({ strategy, extra, schedule: false });
+  const res = await fetch(`${DEBT_API_URL}/payoff?${params.toString()}`, {
+    headers: getAuthHeaders(),
+  });
+  if (!res.ok) throw new Error("Failed to fetch debt payoff plan");
+  return res.json();
+}
+
 // Financial Reports API
 export async function fetchMonthlyReport(year, month) {
   const res = await fetch(
@@ -286,6 +399,15 @@ export async function fetchYearlyReport(year) {
   return res.json();
 }
 
+// Summary, recent expenses, upcoming bills, debt totals and goal progress in one request
+export async function fetchDashboard() {
+  const res = await fetch(DASHBOARD_API_URL, {
+    headers: getAuthHeaders(),
+  });
+  if (!res.ok) throw new Error("Failed to fetch dashboard");
+  return res.json();
+}
+
 export async function fetchFinancialSummary() {
   const res = await fetch(`${REPORT_API_URL}/summary`, {
     headers: getAuthHeaders(),
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from "react";
 import {
   fetchBillReminders,
+  fetchUpcomingBills,
   addBillReminder,
   editBillReminder,
   deleteBillReminder,
@@ -9,6 +10,7 @@ import {
 
 function BillReminders() {
   const [bills, setBills] = useState([]);
+  const [dueBills, setDueBills] = useState([]);
   const [formData, setFormData] = useState({
     billName: "",
     amount: "",
@@ -25,6 +27,7 @@ function BillReminders() {
 
   const loadBills = () => {
     fetchBillReminders().then(setBills).catch(console.error);
+    fetchUpcomingBills(7).then(setDueBills).catch(console.error);
   };
 
   const handleSubmit = (e) => {
@@ -100,10 +103,11 @@ function BillReminders() {
     return due < today;
   };
 
-  const upcomingBills = bills.filter(
+  // dueBills holds only unpaid bills due within 7 days, overdue ones included
+  const upcomingBills = dueBills.filter(
     (bill) => !bill.paid && isUpcoming(bill.dueDate)
   );
-  const overdueBills = bills.filter((bill) =>
+  const overdueBills = dueBills.filter((bill) =>
     isOverdue(bill.dueDate, bill.paid)
   );
 
@@ -4,13 +4,36 @@ import { useAuth } from "../context/AuthContext";
 import ExpenseForm from "./ExpenseForm";
 import ExpenseCharts from "./ExpenseCharts";
 import {
-  fetchExpenses,
+  fetchDashboard,
   addExpense,
   editExpense,
   deleteExpense,
-  fetchFinancialSummary,
+  subscribeToChanges,
 } from "../api";
 
+// Adds a newly created expense to the dashboard's month-by-category spending breakdown
+function addToSpending(spending, expense) {
+  const month = expense.date ? expense.date.slice(0, 7) : null;
+  const category = expense.category || "Uncategorized";
+  const cell = spending.cells.find(
+    (c) => c.month === month && c.category === category
+  );
+  const cells = cell
+    ? spending.cells.map((c) =>
+        c === cell
+          ? { ...c, total: c.total + expense.amount, count: c.count + 1 }
+          : c
+      )
+    : [...spending.cells, { month, category, total: expense.amount, count: 1 }];
+  return {
+    ...spending,
+    cells,
+    total: spending.total + expense.amount,
+    count: spending.count + 1,
+    highest: Math.max(spending.highest || 0, expense.amount),
+  };
+}
+
 function Dashboard() {
   const [expenses, setExpenses] = useState([]);
   const [editingId, setEditingId] = useState(null);
@@ -20,17 +43,82 @@ function Dashboard() {
     category: "",
   });
   const [summary, setSummary] = useState(null);
+  const [spending, setSpending] = useState(null);
   const { logout } = useAuth();
   const navigate = useNavigate();
 
+  const loadDashboard = () => {
+    fetchDashboard()
+      .then((dashboard) => {
+        setExpenses(dashboard.recentExpenses || []);
+        setSummary(dashboard.summary || null);
+        setSpending(dashboard.spending || null);
+      })
+      .catch(console.error);
+  };
+
   useEffect(() => {
-    fetchExpenses().then(setExpenses).catch(console.error);
-    fetchFinancialSummary().then(setSummary).catch(console.error);
+    loadDashboard();
+    return subscribeToChanges(applyChange, loadDashboard);
   }, []);
 
+  // Patches local state from a change made in this or another tab instead of refetching the dashboard
+  const applyChange = (event) => {
+    if (event.action === "CHANGED") {
+      if (event.collection === "EXPENSES" || event.collection === "INCOME") {
+        loadDashboard();
+      }
+      return;
+    }
+    const delta = event.amountDelta || 0;
+    const countDelta =
+      event.action === "CREATED" ? 1 : event.action === "DELETED" ? -1 : 0;
+    if (event.collection === "EXPENSES") {
+      // Updates and deletes do not say which month and category the old amount was in
+      if (event.action !== "CREATED") {
+        loadDashboard();
+        return;
+      }
+      setSpending((prev) => prev && addToSpending(prev, event.data));
+      setExpenses((prev) => {
+        if (event.action === "DELETED") {
+          return prev.filter((exp) => exp.id !== event.id);
+        }
+        if (prev.some((exp) => exp.id === event.id)) {
+          return prev.map((exp) => (exp.id === event.id ? event.data : exp));
+        }
+        return event.action === "CREATED" ? [...prev, event.data] : prev;
+      });
+      setSummary((prev) =>
+        prev && {
+          ...prev,
+          totalExpenses: (prev.totalExpenses || 0) + delta,
+          expenseCount: (prev.expenseCount || 0) + countDelta,
+          netSavings: (prev.netSavings || 0) - delta,
+        }
+      );
+    } else if (event.collection === "INCOME") {
+      setSummary((prev) =>
+        prev && {
+          ...prev,
+          totalIncome: (prev.totalIncome || 0) + delta,
+          incomeCount: (prev.incomeCount || 0) + countDelta,
+          netSavings: (prev.netSavings || 0) + delta,
+        }
+      );
+    }
+  };
+
   const handleAddExpense = (expense) => {
     addExpense(expense)
-      .then((newExpense) => setExpenses((prev) => [...prev, newExpense]))
+      .then((newExpense) =>
+        // The change event for this expense may have arrived first
+        setExpenses((prev) =>
+          prev.some((exp) => exp.id === newExpense.id)
+            ? prev
+            : [...prev, newExpense]
+        )
+      )
       .catch(console.error);
   };
 
@@ -40,6 +128,7 @@ function Dashboard() {
       amount: expense.amount,
       description: expense.description,
       category: expense.category,
+      version: expense.version,
     });
   };
   const handleDelete = (id) => {
@@ -61,6 +150,7 @@ function Dashboard() {
       amount: parseFloat(editData.amount),
       description: editData.description,
       category: editData.category,
+      version: editData.version,
     })
       .then((updated) => {
         setExpenses((prev) =>
@@ -303,7 +393,22 @@ function Dashboard() {
       >
         Go to Filter Page
       </button>
-      <ExpenseCharts expenses={expenses} />
+      <button
+        style={{
+          margin: "20px 0 20px 10px",
+          padding: "10px 20px",
+          background: "#36A2EB",
+          color: "#fff",
+          border: "none",
+          borderRadius: "5px",
+          cursor: "pointer",
+          fontWeight: "600",
+        }}
+        onClick={() => navigate("/search")}
+      >
+        Search
+      </button>
+      <ExpenseCharts expenses={expenses} spending={spending} />
       <h2>Expenses</h2>
       <ul>
         {expenses.map((e) => (
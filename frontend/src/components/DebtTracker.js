@@ -5,6 +5,7 @@ import {
   editDebt,
   deleteDebt,
   makeDebtPayment,
+  fetchDebtPayoff,
 } from "../api";
 
 function DebtTracker() {
@@ -22,15 +23,29 @@ function DebtTracker() {
   const [editingId, setEditingId] = useState(null);
   const [paymentId, setPaymentId] = useState(null);
   const [paymentAmount, setPaymentAmount] = useState("");
+  const [strategy, setStrategy] = useState("avalanche");
+  const [extraPayment, setExtraPayment] = useState("");
+  const [plan, setPlan] = useState(null);
 
   useEffect(() => {
     loadDebts();
   }, []);
 
+  useEffect(() => {
+    loadPlan();
+  }, [debts, strategy, extraPayment]);
+
   const loadDebts = () => {
     fetchDebts().then(setDebts).catch(console.error);
   };
 
+  // Payoff dates and interest come from the server's payoff simulation, which rolls freed-up payments over
+  const loadPlan = () => {
+    fetchDebtPayoff(strategy, parseFloat(extraPayment) || 0)
+      .then(setPlan)
+      .catch(console.error);
+  };
+
   const handleSubmit = (e) => {
     e.preventDefault();
     const debtData = {
@@ -47,7 +62,10 @@ function DebtTracker() {
           loadDebts();
           resetForm();
         })
-        .catch(console.error);
+        .catch((err) => {
+          window.alert(err.message);
+          loadDebts();
+        });
     } else {
       addDebt(debtData)
         .then(() => {
@@ -69,6 +87,7 @@ function DebtTracker() {
       minimumPayment: debt.minimumPayment,
       startDate: debt.startDate || "",
       targetPayoffDate: debt.targetPayoffDate || "",
+      version: debt.version,
     });
   };
 
@@ -108,15 +127,8 @@ function DebtTracker() {
     return ((total - remaining) / total) * 100;
   };
 
-  const calculateMonthsToPayoff = (remaining, monthlyPayment, interestRate) => {
-    if (monthlyPayment <= 0 || remaining <= 0) return 0;
-    const monthlyRate = interestRate / 100 / 12;
-    if (monthlyRate === 0) return Math.ceil(remaining / monthlyPayment);
-    const months =
-      -Math.log(1 - (remaining * monthlyRate) / monthlyPayment) /
-      Math.log(1 + monthlyRate);
-    return Math.ceil(months);
-  };
+  const payoffFor = (id) =>
+    plan ? (plan.debts || []).find((entry) => entry.id === id) : null;
 
   const totalDebt = debts.reduce((sum, debt) => sum + debt.remainingAmount, 0);
   const totalMinPayment = debts.reduce(
@@ -166,6 +178,59 @@ function DebtTracker() {
         </div>
       </div>
 
+      <div
+        style={{
+          marginBottom: "20px",
+          padding: "15px",
+          backgroundColor: "#e3f2fd",
+          borderRadius: "5px",
+        }}
+      >
+        <h3>Payoff Plan</h3>
+        <div style={{ display: "flex", gap: "10px", marginBottom: "10px" }}>
+          <select
+            value={strategy}
+            onChange={(e) => setStrategy(e.target.value)}
+            style={{
+              padding: "10px",
+              borderRadius: "5px",
+              border: "1px solid #ccc",
+            }}
+          >
+            <option value="avalanche">Avalanche (highest rate first)</option>
+            <option value="snowball">Snowball (smallest balance first)</option>
+          </select>
+          <input
+            type="number"
+            placeholder="Extra monthly payment"
+            value={extraPayment}
+            onChange={(e) => setExtraPayment(e.target.value)}
+            step="0.01"
+            style={{
+              padding: "10px",
+              borderRadius: "5px",
+              border: "1px solid #ccc",
+            }}
+          />
+        </div>
+        {plan && debts.length > 0 && (
+          <div style={{ fontSize: "14px" }}>
+            {plan.debtFree ? (
+              <span>
+                Debt-free by <strong>{plan.debtFreeDate}</strong> (
+                {plan.months} months), paying $
+                {plan.totalInterest.toFixed(2)} in interest
+              </span>
+            ) : (
+              <span style={{ color: "#f44336" }}>
+                The minimum payments do not cover the interest; these debts
+                are never paid off
+              </span>
+            )}
+          </div>
+        )}
+      </div>
+
       <form
         onSubmit={handleSubmit}
         style={{
@@ -343,11 +408,8 @@ function DebtTracker() {
             debt.totalAmount,
             debt.remainingAmount
           );
-          const monthsToPayoff = calculateMonthsToPayoff(
-            debt.remainingAmount,
-            debt.minimumPayment,
-            debt.interestRate
-          );
+          const payoff = payoffFor(debt.id);
+          const monthsToPayoff = payoff ? payoff.payoffMonths : null;
           return (
             <div
               key={debt.id}
@@ -483,6 +545,21 @@ function DebtTracker() {
                     </span>
                   </div>
                 )}
+                {payoff && payoff.payoffMonths !== null && (
+                  <div
+                    style={{
+                      display: "flex",
+                      justifyContent: "space-between",
+                      fontSize: "14px",
+                      marginTop: "5px",
+                    }}
+                  >
+                    <span>Interest Until Paid Off:</span>
+                    <span style={{ fontWeight: "bold" }}>
+                      ${payoff.totalInterest.toFixed(2)}
+                    </span>
+                  </div>
+                )}
               </div>
 
               <div>
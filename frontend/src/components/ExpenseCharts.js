@@ -13,7 +13,7 @@ import {
 } from "chart.js";
 import "./ExpenseCharts.css";
 import { getMonthlySummary, getCategoryStatistics } from "../common/utils";
-import { fetchBudgets } from "../api";
+import { fetchBudgetUtilization } from "../api";
 import BudgetSettings from "./BudgetSettings";
 Chart.register(
   ArcElement,
@@ -42,6 +42,28 @@ function getStatistics(expenses) {
   };
 }
 
+// Statistics from the server-side breakdown of all of the user's expenses
+function getSpendingStatistics(spending) {
+  if (!spending.count) {
+    return { total: 0, average: 0, highest: 0, count: 0 };
+  }
+  return {
+    total: spending.total.toFixed(2),
+    average: (spending.total / spending.count).toFixed(2),
+    highest: (spending.highest || 0).toFixed(2),
+    count: spending.count,
+  };
+}
+
+// One row per month and category, shaped like an expense so the chart helpers below apply unchanged
+function spendingRows(spending) {
+  return spending.cells.map((cell) => ({
+    category: cell.category,
+    amount: cell.total,
+    date: cell.month ? `${cell.month}-01T00:00:00` : null,
+  }));
+}
+
 function getCategoryData(expenses) {
   const categoryTotals = {};
   expenses.forEach((e) => {
@@ -125,32 +147,29 @@ function getTrendData(expenses) {
     ],
   };
 }
-function ExpenseCharts({ expenses }) {
-  const stats = getStatistics(expenses);
-  const [budgets, setBudgets] = useState([]); // [{id, category, amount, month}]
+// When spending (a server-side breakdown of every matching expense) is given it is charted instead of the
+// expense list, which on the dashboard and filter page holds only the pages loaded so far
+function ExpenseCharts({ expenses, spending }) {
+  const rows = spending ? spendingRows(spending) : expenses;
+  const stats = spending ? getSpendingStatistics(spending) : getStatistics(rows);
+  const [utilization, setUtilization] = useState([]); // [{category, budget, spent, utilization, overBudget}]
   const [month] = useState(() => {
     const d = new Date();
     return `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, "0")}`;
   });
 
-  useEffect(() => {
-    fetchBudgets()
-      .then((data) => {
-        setBudgets(data);
-      })
-      .catch(console.error);
-  }, []);
-
-  // Refresh budgets when month changes or after BudgetSettings change
+  // Budget vs. actual is computed server-side from the spend rollups
   const refreshBudgets = () => {
-    fetchBudgets()
-      .then((data) => {
-        setBudgets(data);
-      })
+    fetchBudgetUtilization(month)
+      .then((data) => setUtilization(data.categories || []))
       .catch(console.error);
   };
 
-  if (expenses.length === 0) {
+  useEffect(() => {
+    refreshBudgets();
+  }, [month]);
+
+  if (stats.count === 0) {
     return (
       <div className="charts-container">
         <p style={{ textAlign: "center", color: "#666" }}>
@@ -161,18 +180,13 @@ function ExpenseCharts({ expenses }) {
     );
   }
 
-  const monthlySummary = getMonthlySummary(expenses);
-  const categoryStats = getCategoryStatistics(expenses);
-  const categories = Array.from(new Set(expenses.map((e) => e.category)));
+  const monthlySummary = getMonthlySummary(rows);
+  const categoryStats = getCategoryStatistics(rows);
+  const categories = Array.from(new Set(rows.map((e) => e.category)));
 
-  // Calculate progress for each category
-  const getProgress = (category, total) => {
-    const budget = budgets.find(
-      (b) => b.category === category && b.month === month
-    );
-    if (!budget || !budget.amount || budget.amount === 0) return null;
-    return Math.min(100, ((total / budget.amount) * 100).toFixed(1));
-  };
+  // Progress against this month's budget for each category
+  const getUtilization = (category) =>
+    utilization.find((u) => u.category === category && u.budget > 0);
 
   return (
     <div>
@@ -201,15 +215,15 @@ function ExpenseCharts({ expenses }) {
       <div className="charts-container">
         <div className="chart-block">
           <h3>Category Breakdown</h3>
-          <Pie data={getCategoryData(expenses)} />
+          <Pie data={getCategoryData(rows)} />
         </div>
         <div className="chart-block">
           <h3>Monthly Spending</h3>
-          <Bar data={getMonthlyData(expenses)} />
+          <Bar data={getMonthlyData(rows)} />
         </div>
         <div className="chart-block">
           <h3>Spending Trend</h3>
-          <Line data={getTrendData(expenses)} />
+          <Line data={getTrendData(rows)} />
         </div>
       </div>
       <div className="monthly-summary-block">
@@ -250,21 +264,19 @@ function ExpenseCharts({ expenses }) {
           </thead>
           <tbody>
             {categoryStats.map((row) => {
-              const budget = budgets.find(
-                (b) => b.category === row.category && b.month === month
-              );
-              const progress = getProgress(row.category, parseFloat(row.total));
+              const budget = getUtilization(row.category);
+              const progress = budget
+                ? Math.min(100, budget.utilization).toFixed(1)
+                : null;
               return (
                 <tr key={row.category}>
                   <td>{row.category}</td>
                   <td>${row.total}</td>
                   <td>
-                    {budget && budget.amount > 0
-                      ? ((row.total / budget.amount) * 100).toFixed(1) + "%"
-                      : "-"}
+                    {budget ? budget.utilization.toFixed(1) + "%" : "-"}
                   </td>
                   <td style={{ minWidth: 120 }}>
-                    {budget && budget.amount > 0 ? (
+                    {budget ? (
                       <div
                         style={{
                           width: 100,
@@ -1,9 +1,14 @@
 import React, { useEffect, useState } from "react";
-import { fetchExpenses } from "../api";
+import { fetchExpensePage, fetchExpenseSummary } from "../api";
 import ExpenseCharts from "./ExpenseCharts";
 
+const PAGE_SIZE = 50;
+
 function ExpenseFilterPage() {
   const [expenses, setExpenses] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [spending, setSpending] = useState(null);
+  const [categories, setCategories] = useState([]);
   const [filter, setFilter] = useState({
     startDate: "",
     endDate: "",
@@ -13,36 +18,46 @@ function ExpenseFilterPage() {
     search: "",
   });
 
-  useEffect(() => {
-    fetchExpenses().then(setExpenses).catch(console.error);
-  }, []);
-
-  const filteredExpenses = expenses.filter((e) => {
-    const expenseDate = new Date(e.date || e.createdAt || Date.now());
-    const startDate = filter.startDate ? new Date(filter.startDate) : null;
-    const endDate = filter.endDate ? new Date(filter.endDate) : null;
-    const minAmount = filter.minAmount ? parseFloat(filter.minAmount) : null;
-    const maxAmount = filter.maxAmount ? parseFloat(filter.maxAmount) : null;
-    let pass = true;
-    if (startDate && expenseDate < startDate) pass = false;
-    if (endDate && expenseDate > endDate) pass = false;
-    if (filter.category && e.category !== filter.category) pass = false;
-    if (minAmount !== null && e.amount < minAmount) pass = false;
-    if (maxAmount !== null && e.amount > maxAmount) pass = false;
-    if (
-      filter.search &&
-      !(
-        (e.description &&
-          e.description.toLowerCase().includes(filter.search.toLowerCase())) ||
-        (e.category &&
-          e.category.toLowerCase().includes(filter.search.toLowerCase()))
-      )
-    )
-      pass = false;
-    return pass;
+  const toQuery = (f) => ({
+    from: f.startDate,
+    to: f.endDate,
+    category: f.category,
+    minAmount: f.minAmount,
+    maxAmount: f.maxAmount,
+    q: f.search,
   });
 
-  const categories = Array.from(new Set(expenses.map((e) => e.category)));
+  const rememberCategories = (items) =>
+    setCategories((prev) =>
+      Array.from(new Set([...prev, ...items.map((e) => e.category)]))
+    );
+
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      fetchExpensePage(toQuery(filter), null, PAGE_SIZE)
+        .then(({ items, nextCursor }) => {
+          setExpenses(items);
+          setNextCursor(nextCursor);
+          rememberCategories(items);
+        })
+        .catch(console.error);
+      // Charts and totals cover every matching expense, not only the pages loaded so far
+      fetchExpenseSummary(toQuery(filter))
+        .then(setSpending)
+        .catch(console.error);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [filter]);
+
+  const loadMore = () => {
+    fetchExpensePage(toQuery(filter), nextCursor, PAGE_SIZE)
+      .then(({ items, nextCursor }) => {
+        setExpenses((prev) => [...prev, ...items]);
+        setNextCursor(nextCursor);
+        rememberCategories(items);
+      })
+      .catch(console.error);
+  };
 
   return (
     <div>
@@ -146,15 +161,20 @@ function ExpenseFilterPage() {
           </label>
         </div>
       </form>
-      <ExpenseCharts expenses={filteredExpenses} />
+      {spending && <ExpenseCharts expenses={expenses} spending={spending} />}
       <h3>Filtered Expenses</h3>
       <ul>
-        {filteredExpenses.map((e) => (
+        {expenses.map((e) => (
           <li key={e.id}>
             <strong>{e.category}</strong>: ${e.amount} - {e.description}
           </li>
         ))}
       </ul>
+      {nextCursor && (
+        <button type="button" onClick={loadMore}>
+          Load more
+        </button>
+      )}
     </div>
   );
 }
@@ -54,6 +54,7 @@ function IncomeTracker() {
       date: income.date || "",
       recurring: income.recurring,
       frequency: income.frequency || "MONTHLY",
+      version: income.version,
     });
   };
 
@@ -0,0 +1,75 @@
+import React, { useEffect, useState } from "react";
+import { searchLedger } from "../api";
+
+const PAGE_SIZE = 20;
+
+const TYPE_LABELS = {
+  EXPENSE: "Expense",
+  INCOME: "Income",
+  DEBT: "Debt",
+  BILL: "Bill",
+};
+
+function LedgerSearch() {
+  const [query, setQuery] = useState("");
+  const [results, setResults] = useState([]);
+  const [page, setPage] = useState(0);
+  const [hasMore, setHasMore] = useState(false);
+
+  useEffect(() => {
+    if (query.trim().length < 2) {
+      setResults([]);
+      setHasMore(false);
+      return;
+    }
+    const timer = setTimeout(() => {
+      searchLedger(query, 0, PAGE_SIZE)
+        .then((data) => {
+          setResults(data.results);
+          setPage(0);
+          setHasMore(data.hasMore);
+        })
+        .catch(console.error);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [query]);
+
+  const loadMore = () => {
+    searchLedger(query, page + 1, PAGE_SIZE)
+      .then((data) => {
+        setResults((prev) => [...prev, ...data.results]);
+        setPage(page + 1);
+        setHasMore(data.hasMore);
+      })
+      .catch(console.error);
+  };
+
+  return (
+    <div>
+      <h2>Search</h2>
+      <input
+        type="text"
+        placeholder="Descriptions, debts, bills..."
+        value={query}
+        onChange={(e) => setQuery(e.target.value)}
+        style={{ marginBottom: "1rem", minWidth: "300px" }}
+      />
+      <ul>
+        {results.map((r) => (
+          <li key={`${r.type}-${r.id}`}>
+            <strong>{TYPE_LABELS[r.type]}</strong>: {r.text} - ${r.amount}
+            {r.date && ` (${r.date})`}
+          </li>
+        ))}
+      </ul>
+      {query.trim().length >= 2 && results.length === 0 && <p>No matches.</p>}
+      {hasMore && (
+        <button type="button" onClick={loadMore}>
+          Load more
+        </button>
+      )}
+    </div>
+  );
+}
+
+export default LedgerSearch;
@@ -43,7 +43,10 @@ function SavingsGoals() {
           loadGoals();
           resetForm();
         })
-        .catch(console.error);
+        .catch((err) => {
+          window.alert(err.message);
+          loadGoals();
+        });
     } else {
       addSavingsGoal(goalData)
         .then(() => {
@@ -62,6 +65,7 @@ function SavingsGoals() {
       currentAmount: goal.currentAmount,
       targetDate: goal.targetDate || "",
       description: goal.description || "",
+      version: goal.version,
     });
   };
 